@@ -0,0 +1,209 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드/다운로드 동시 부하 발생기. JDK 만 사용하며 빌드 없이 실행한다.
+ *
+ *   java benchmark/LoadGenerator.java --base-url http://localhost:8080 --concurrency 200 --duration 60 \
+ *       --file-size 262144 --download-ratio 0.8 --label virtual --output benchmark/results/results.csv
+ *
+ * 클라이언트 쪽 동시성은 가상 스레드로 만들어서 부하 발생기가 먼저 병목이 되지 않게 한다.
+ */
+public class LoadGenerator {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int fileSize = Integer.parseInt(options.getOrDefault("file-size", "262144"));
+        double downloadRatio = Double.parseDouble(options.getOrDefault("download-ratio", "0.8"));
+        int seedFiles = Integer.parseInt(options.getOrDefault("seed-files", "50"));
+        String label = options.getOrDefault("label", "run");
+        String output = options.get("output");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        byte[] payload = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+
+        List<Long> fileIds = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < seedFiles; i++) {
+            Long id = upload(client, baseUrl, payload, "seed-" + i);
+            if (id != null) {
+                fileIds.add(id);
+            }
+        }
+        if (fileIds.isEmpty()) {
+            System.err.println("시드 파일 업로드에 실패했습니다. 서버 상태를 확인하세요: " + baseUrl);
+            System.exit(1);
+        }
+
+        System.out.printf("[%s] 워밍업 %d초%n", label, warmupSeconds);
+        runPhase(client, baseUrl, payload, fileIds, concurrency, warmupSeconds, downloadRatio);
+
+        System.out.printf("[%s] 측정 %d초, 동시 %d, 파일 %d bytes, 다운로드 비율 %.2f%n",
+                label, durationSeconds, concurrency, fileSize, downloadRatio);
+        Result result = runPhase(client, baseUrl, payload, fileIds, concurrency, durationSeconds, downloadRatio);
+        result.print(label, durationSeconds);
+        if (output != null) {
+            result.append(output, label, concurrency, fileSize, downloadRatio, durationSeconds);
+        }
+        System.exit(0);
+    }
+
+    private static Result runPhase(HttpClient client, String baseUrl, byte[] payload, List<Long> fileIds,
+                                   int concurrency, int seconds, double downloadRatio) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<long[]> latencies = new CopyOnWriteArrayList<>();
+        AtomicLong uploads = new AtomicLong();
+        AtomicLong downloads = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    LatencyBuffer buffer = new LatencyBuffer();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        if (random.nextDouble() < downloadRatio) {
+                            ok = download(client, baseUrl, fileIds.get(random.nextInt(fileIds.size())));
+                            downloads.incrementAndGet();
+                        } else {
+                            Long id = upload(client, baseUrl, payload, "load");
+                            ok = id != null;
+                            uploads.incrementAndGet();
+                        }
+                        if (ok) {
+                            buffer.add(System.nanoTime() - start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    latencies.add(buffer.toArray());
+                });
+            }
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, uploads.get(), downloads.get(), errors.get());
+    }
+
+    private static Long upload(HttpClient client, String baseUrl, byte[] payload, String prefix) {
+        String filename = prefix + "-" + System.nanoTime() + ".bin";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/upload/stream?filename=" + filename))
+                .header("Content-Type", "application/octet-stream")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            Matcher matcher = ID_PATTERN.matcher(response.body());
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean download(HttpClient client, String baseUrl, long id) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/" + id + "/download"))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static final class LatencyBuffer {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Result(long[] sortedLatencies, long uploads, long downloads, long errors) {
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        double throughput(int seconds) {
+            return sortedLatencies.length / (double) seconds;
+        }
+
+        void print(String label, int seconds) {
+            System.out.printf("[%s] 처리량 %.1f req/s (업로드 %d, 다운로드 %d, 실패 %d)%n",
+                    label, throughput(seconds), uploads, downloads, errors);
+            System.out.printf("[%s] 지연 p50 %.1fms, p95 %.1fms, p99 %.1fms, max %.1fms%n",
+                    label, percentileMillis(0.50), percentileMillis(0.95), percentileMillis(0.99),
+                    percentileMillis(1.0));
+        }
+
+        void append(String output, String label, int concurrency, int fileSize, double downloadRatio, int seconds)
+                throws java.io.IOException {
+            java.nio.file.Path path = java.nio.file.Path.of(output);
+            if (path.getParent() != null) {
+                java.nio.file.Files.createDirectories(path.getParent());
+            }
+            List<String> lines = new ArrayList<>();
+            if (!java.nio.file.Files.exists(path)) {
+                lines.add("label,concurrency,file_size,download_ratio,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms,errors");
+            }
+            lines.add(String.format(java.util.Locale.ROOT, "%s,%d,%d,%.2f,%.1f,%.1f,%.1f,%.1f,%.1f,%d",
+                    label, concurrency, fileSize, downloadRatio, throughput(seconds), percentileMillis(0.50),
+                    percentileMillis(0.95), percentileMillis(0.99), percentileMillis(1.0), errors));
+            java.nio.file.Files.write(path, lines, java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+# 플랫폼 스레드 모드와 가상 스레드 모드를 같은 조건으로 번갈아 띄우고 LoadGenerator 로 부하를 건다.
+# 결과는 benchmark/results/results-<시각>.csv 에 모드별로 한 줄씩 쌓인다.
+#
+#   CONCURRENCY=400 DURATION=60 FILE_SIZE=262144 ./benchmark/run.sh
+#
+# MariaDB 는 미리 떠 있어야 한다 (application-dev.yml 의 datasource 또는 DB_* 환경 변수).
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+PORT="${PORT:-18080}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-60}"
+WARMUP="${WARMUP:-10}"
+FILE_SIZE="${FILE_SIZE:-262144}"
+DOWNLOAD_RATIO="${DOWNLOAD_RATIO:-0.8}"
+ROUNDS="${ROUNDS:-2}"
+DB_POOL_SIZE="${DB_POOL_SIZE:-20}"
+UPLOAD_DIR="${UPLOAD_DIR:-$(mktemp -d)}"
+RESULT_FILE="${ROOT_DIR}/benchmark/results/results-$(date +%Y%m%d-%H%M%S).csv"
+
+cd "$ROOT_DIR"
+# gradlew 는 실행 권한 없이 저장소에 들어 있으므로 sh 로 실행한다
+sh ./gradlew -q bootJar -x test
+JAR="$(ls build/libs/*.jar | grep -v plain | head -n 1)"
+
+run_mode() {
+  local label="$1" virtual="$2"
+  local log_file="${ROOT_DIR}/benchmark/results/server-${label}.log"
+  mkdir -p "${ROOT_DIR}/benchmark/results"
+
+  # 가상 스레드가 캐리어 스레드를 붙잡으면 로그에 스택이 남는다 (jdk.tracePinnedThreads)
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.threads.virtual.enabled="$virtual" \
+    --spring.datasource.hikari.maximum-pool-size="$DB_POOL_SIZE" \
+    --app.upload.path="$UPLOAD_DIR" \
+    --logging.level.flow=INFO \
+    --spring.jpa.show-sql=false > "$log_file" 2>&1 &
+  local pid=$!
+
+  local ready=false
+  for _ in $(seq 1 60); do
+    if curl -fs "http://localhost:${PORT}/actuator/health" > /dev/null; then
+      ready=true
+      break
+    fi
+    if ! kill -0 "$pid" 2> /dev/null; then
+      break
+    fi
+    sleep 1
+  done
+
+  # 뜨지 않은 서버를 측정하지 않도록 여기서 멈춘다
+  if [ "$ready" != true ]; then
+    echo "[$label] 서버가 60초 안에 기동하지 않았습니다: $log_file" >&2
+    tail -n 30 "$log_file" >&2 || true
+    kill "$pid" 2> /dev/null || true
+    wait "$pid" 2> /dev/null || true
+    exit 1
+  fi
+
+  java benchmark/LoadGenerator.java \
+    --base-url "http://localhost:${PORT}" \
+    --concurrency "$CONCURRENCY" \
+    --duration "$DURATION" \
+    --warmup "$WARMUP" \
+    --file-size "$FILE_SIZE" \
+    --download-ratio "$DOWNLOAD_RATIO" \
+    --label "$label" \
+    --output "$RESULT_FILE" || true
+
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  if grep -q "onPinned\|pinned" "$log_file"; then
+    echo "[$label] 캐리어 스레드 고정(pinning)이 감지되었습니다: $log_file"
+  fi
+}
+
+# 순서 효과(디스크 캐시 등)를 줄이기 위해 두 모드를 번갈아 여러 번 돌린다
+for round in $(seq 1 "$ROUNDS"); do
+  run_mode "platform" false
+  run_mode "virtual" true
+done
+
+echo "결과: $RESULT_FILE"
+column -s, -t < "$RESULT_FILE"
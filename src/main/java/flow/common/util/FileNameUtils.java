@@ -0,0 +1,15 @@
+package flow.common.util;
+
+public final class FileNameUtils {
+
+    private FileNameUtils() {
+    }
+
+    // 마지막 점 이후를 소문자 확장자로 돌려준다. 확장자가 없으면 빈 문자열
+    public static String getFileExtension(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+    }
+}
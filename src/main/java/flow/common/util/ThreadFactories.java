@@ -0,0 +1,16 @@
+package flow.common.util;
+
+import java.util.concurrent.ThreadFactory;
+
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    // spring.threads.virtual.enabled 를 따라 내부 작업 스레드도 가상 스레드로 만든다. 병렬도 제한은 풀 크기로 한다
+    public static ThreadFactory named(String prefix, boolean virtualThreads) {
+        return virtualThreads
+                ? Thread.ofVirtual().name(prefix + "-", 0).factory()
+                : Thread.ofPlatform().name(prefix + "-", 0).daemon(true).factory();
+    }
+}
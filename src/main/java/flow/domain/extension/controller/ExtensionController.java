@@ -4,14 +4,22 @@ import flow.common.dto.ResponseApi;
 import flow.common.exception.BusinessException;
 import flow.domain.extension.entity.CustomExtension;
 import flow.domain.extension.service.ExtensionService;
+import flow.domain.extension.service.ExtensionStreamService;
 import flow.domain.extension.entity.FixedExtension;
 import flow.domain.extension.dto.*;
+import flow.domain.extension.policy.ExtensionVerdict;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -21,19 +29,36 @@ import java.util.List;
 public class ExtensionController {
 
     private final ExtensionService extensionService;
+    private final ExtensionStreamService extensionStreamService;
 
     @GetMapping("/fixed")
-    public ResponseEntity<ResponseApi<List<FixedExtension>>> getFixedExtensions() {
+    public ResponseEntity<ResponseApi<List<FixedExtension>>> getFixedExtensions(WebRequest webRequest) {
+        String eTag = policyETag("fixed");
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
         List<FixedExtension> fixedExtensions = extensionService.getAllFixedExtensions();
         String message = String.format("고정 확장자 %d/%d", fixedExtensions.size(), 10);
-        return ResponseEntity.ok(ResponseApi.success(fixedExtensions, message));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(ResponseApi.success(fixedExtensions, message));
     }
 
     @GetMapping("/custom")
-    public ResponseEntity<ResponseApi<List<CustomExtension>>> getCustomExtensions() {
+    public ResponseEntity<ResponseApi<List<CustomExtension>>> getCustomExtensions(WebRequest webRequest) {
+        String eTag = policyETag("custom");
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
         List<CustomExtension> customExtensions = extensionService.getAllCustomExtensions();
         String message = String.format("커스텀 확장자 %d/%d", customExtensions.size(), 200);
-        return ResponseEntity.ok(ResponseApi.success(customExtensions, message));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(ResponseApi.success(customExtensions, message));
     }
 
     @PostMapping("/fixed")
@@ -102,6 +127,38 @@ public class ExtensionController {
         }
     }
 
+    @PostMapping("/custom/import")
+    public ResponseEntity<ResponseApi<List<CustomExtensionResponse>>> importCustomExtensions(
+            @Valid @RequestBody CustomExtensionBulkRequest request) {
+        try {
+            int insertedCount = extensionService.importCustomExtensions(request.getExtensions());
+            List<CustomExtensionResponse> responses = extensionService.getAllCustomExtensions().stream()
+                    .map(CustomExtensionResponse::from)
+                    .toList();
+            String message = String.format("커스텀 확장자 %d개가 추가되었습니다. (%d/%d)", insertedCount, responses.size(), 200);
+            return ResponseEntity.ok(ResponseApi.success(responses, message));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
+    @PutMapping("/custom")
+    public ResponseEntity<ResponseApi<List<CustomExtensionResponse>>> replaceCustomExtensions(
+            @Valid @RequestBody CustomExtensionBulkRequest request) {
+        try {
+            extensionService.replaceCustomExtensions(request.getExtensions());
+            List<CustomExtensionResponse> responses = extensionService.getAllCustomExtensions().stream()
+                    .map(CustomExtensionResponse::from)
+                    .toList();
+            String message = String.format("커스텀 확장자가 %d개로 교체되었습니다.", responses.size());
+            return ResponseEntity.ok(ResponseApi.success(responses, message));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
     @DeleteMapping("/custom/{id}")
     public ResponseEntity<ResponseApi<Void>> deleteCustomExtension(@PathVariable Long id) {
         try {
@@ -126,34 +183,66 @@ public class ExtensionController {
 
     @GetMapping("/check/{extension}")
     public ResponseEntity<ResponseApi<Boolean>> checkExtension(@PathVariable String extension) {
-        boolean isBlocked = extensionService.isExtensionBlocked(extension);
-        String blockType = extensionService.getExtensionBlockType(extension);
+        ExtensionVerdict verdict = extensionService.evaluateExtension(extension);
 
-        String message;
-        if (isBlocked) {
-            message = switch (blockType) {
-                case "fixed" -> extension + "는 고정 확장자에 있습니다.";
-                case "custom" -> extension + "는 커스텀 확장자에 있습니다.";
-                default -> extension + "는 차단된 확장자입니다.";
-            };
-        } else {
-            message = extension + "는 허용된 확장자입니다.";
+        String message = switch (verdict.getBlockType()) {
+            case FIXED -> extension + "는 고정 확장자에 있습니다.";
+            case CUSTOM -> extension + "는 커스텀 확장자에 있습니다.";
+            case MISSING -> "확장자가 없습니다.";
+            case NONE -> extension + "는 허용된 확장자입니다.";
+        };
+
+        return ResponseEntity.ok(ResponseApi.success(verdict.isBlocked(), message));
+    }
+
+    @PostMapping("/check")
+    public ResponseEntity<ResponseApi<List<ExtensionCheckResponse>>> checkExtensions(
+            @Valid @RequestBody ExtensionCheckRequest request) {
+        List<String> filenames = request.getFilenames() != null ? request.getFilenames() : List.of();
+        List<String> rawExtensions = request.getExtensions() != null ? request.getExtensions() : List.of();
+        if (filenames.isEmpty() && rawExtensions.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(ResponseApi.error("확인할 파일명 또는 확장자를 입력해주세요.", "BAD_REQUEST"));
         }
 
-        return ResponseEntity.ok(ResponseApi.success(isBlocked, message));
+        List<String> inputs = new ArrayList<>(filenames);
+        inputs.addAll(rawExtensions);
+
+        // 파일명은 업로드와 같은 규칙으로 전체 이름을 평가하고, 확장자 목록은 그대로 평가한다
+        List<ExtensionVerdict> verdicts = extensionService.evaluateBatch(filenames, rawExtensions);
+
+        List<ExtensionCheckResponse> responses = new ArrayList<>(verdicts.size());
+        for (int i = 0; i < verdicts.size(); i++) {
+            responses.add(ExtensionCheckResponse.of(inputs.get(i), verdicts.get(i)));
+        }
+
+        long blockedCount = verdicts.stream().filter(ExtensionVerdict::isBlocked).count();
+        String message = String.format("%d개 중 %d개가 차단된 확장자입니다.", verdicts.size(), blockedCount);
+        return ResponseEntity.ok(ResponseApi.success(responses, message));
     }
 
     @GetMapping("/type/{extension}")
     public ResponseEntity<ResponseApi<String>> getExtensionType(@PathVariable String extension) {
-        String extensionType = extensionService.getExtensionBlockType(extension);
+        ExtensionVerdict verdict = extensionService.evaluateExtension(extension);
 
-        String message = switch (extensionType) {
-            case "fixed" -> extension + "는 고정 확장자입니다.";
-            case "custom" -> extension + "는 커스텀 확장자입니다.";
-            default -> extension + "는 등록되지 않은 확장자입니다.";
+        String message = switch (verdict.getBlockType()) {
+            case FIXED -> extension + "는 고정 확장자입니다.";
+            case CUSTOM -> extension + "는 커스텀 확장자입니다.";
+            case MISSING -> "확장자가 없습니다.";
+            case NONE -> extension + "는 등록되지 않은 확장자입니다.";
         };
 
-        return ResponseEntity.ok(ResponseApi.success(extensionType, message));
+        return ResponseEntity.ok(ResponseApi.success(verdict.getBlockType().getValue(), message));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPolicyChanges() {
+        try {
+            return ResponseEntity.ok(extensionStreamService.subscribe());
+        } catch (BusinessException e) {
+            log.warn("확장자 정책 구독 거절: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        }
     }
 
     @PostMapping("/initialize")
@@ -184,4 +273,16 @@ public class ExtensionController {
                     .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
         }
     }
+
+    // 정책 버전은 모든 변경마다 올라가므로 목록 내용이 같으면 ETag 도 같다
+    private String policyETag(String listType) {
+        return "\"" + listType + "-v" + extensionService.getPolicyVersion() + "\"";
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
 }
@@ -0,0 +1,21 @@
+package flow.domain.extension.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomExtensionBulkRequest {
+
+    @NotNull(message = "확장자 목록을 입력해주세요.")
+    @Size(max = 200, message = "커스텀 확장자는 최대 200개까지 입력 가능합니다.")
+    private List<@NotNull String> extensions;
+}
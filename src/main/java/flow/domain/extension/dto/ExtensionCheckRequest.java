@@ -0,0 +1,24 @@
+package flow.domain.extension.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionCheckRequest {
+
+    @Size(max = 1000, message = "파일명은 한 번에 최대 1000개까지 확인할 수 있습니다.")
+    private List<@NotNull String> filenames = new ArrayList<>();
+
+    @Size(max = 1000, message = "확장자는 한 번에 최대 1000개까지 확인할 수 있습니다.")
+    private List<@NotNull String> extensions = new ArrayList<>();
+}
@@ -0,0 +1,27 @@
+package flow.domain.extension.dto;
+
+import flow.domain.extension.policy.ExtensionVerdict;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionCheckResponse {
+    private String input;
+    private String extension;
+    private boolean isBlocked;
+    private String blockType;
+
+    public static ExtensionCheckResponse of(String input, ExtensionVerdict verdict) {
+        return ExtensionCheckResponse.builder()
+                .input(input)
+                .extension(verdict.getExtension())
+                .isBlocked(verdict.isBlocked())
+                .blockType(verdict.getBlockType().getValue())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package flow.domain.extension.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import flow.domain.extension.policy.ExtensionPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionPolicyDeltaResponse {
+    private long version;
+    private List<String> fixedBlocked;
+    private List<String> fixedUnblocked;
+    private List<String> customBlocked;
+    private List<String> customUnblocked;
+
+    public static ExtensionPolicyDeltaResponse between(ExtensionPolicy previous, ExtensionPolicy current) {
+        return ExtensionPolicyDeltaResponse.builder()
+                .version(current.getVersion())
+                .fixedBlocked(difference(current.getFixedBlocked(), previous.getFixedBlocked()))
+                .fixedUnblocked(difference(previous.getFixedBlocked(), current.getFixedBlocked()))
+                .customBlocked(difference(current.getCustomBlocked(), previous.getCustomBlocked()))
+                .customUnblocked(difference(previous.getCustomBlocked(), current.getCustomBlocked()))
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return fixedBlocked.isEmpty() && fixedUnblocked.isEmpty()
+                && customBlocked.isEmpty() && customUnblocked.isEmpty();
+    }
+
+    private static List<String> difference(Set<String> source, Set<String> excluded) {
+        return source.stream()
+                .filter(extension -> !excluded.contains(extension))
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,27 @@
+package flow.domain.extension.dto;
+
+import flow.domain.extension.policy.ExtensionPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionPolicySnapshotResponse {
+    private long version;
+    private List<String> fixedBlocked;
+    private List<String> customBlocked;
+
+    public static ExtensionPolicySnapshotResponse from(ExtensionPolicy policy) {
+        return ExtensionPolicySnapshotResponse.builder()
+                .version(policy.getVersion())
+                .fixedBlocked(policy.getFixedBlocked().stream().sorted().toList())
+                .customBlocked(policy.getCustomBlocked().stream().sorted().toList())
+                .build();
+    }
+}
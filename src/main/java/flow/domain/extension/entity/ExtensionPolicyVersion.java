@@ -0,0 +1,27 @@
+package flow.domain.extension.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "extension_policy_version")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ExtensionPolicyVersion {
+
+    // 정책 버전은 단일 행으로만 관리한다
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public ExtensionPolicyVersion(long version) {
+        this.id = SINGLETON_ID;
+        this.version = version;
+    }
+}
@@ -0,0 +1,20 @@
+package flow.domain.extension.policy;
+
+public enum ExtensionBlockType {
+
+    FIXED("fixed"),
+    CUSTOM("custom"),
+    // 확장자가 없는 파일명. 업로드에서 거절하므로 차단으로 본다
+    MISSING("missing"),
+    NONE("none");
+
+    private final String value;
+
+    ExtensionBlockType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
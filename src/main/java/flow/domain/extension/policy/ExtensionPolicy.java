@@ -0,0 +1,81 @@
+package flow.domain.extension.policy;
+
+import flow.common.util.FileNameUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 차단 확장자 정책의 불변 스냅샷.
+ * 업로드 경로에서는 DB 대신 이 스냅샷으로 차단 여부를 판단한다.
+ */
+public final class ExtensionPolicy {
+
+    private final long version;
+    private final Set<String> fixedBlocked;
+    private final Set<String> customBlocked;
+    // 차단 판정은 미리 만들어 두고 조회 시 새 객체를 만들지 않는다
+    private final Map<String, ExtensionVerdict> blockedVerdicts;
+    private final ExtensionSuffixTrie suffixTrie;
+    private final boolean checkInnerSegments;
+
+    private ExtensionPolicy(long version, Set<String> fixedBlocked, Set<String> customBlocked,
+                            boolean checkInnerSegments) {
+        this.version = version;
+        this.checkInnerSegments = checkInnerSegments;
+        this.fixedBlocked = fixedBlocked;
+        this.customBlocked = customBlocked;
+
+        Map<String, ExtensionVerdict> verdicts = new HashMap<>();
+        customBlocked.forEach(extension ->
+                verdicts.put(extension, new ExtensionVerdict(extension, ExtensionBlockType.CUSTOM)));
+        // 양쪽에 모두 있으면 고정 확장자가 우선한다
+        fixedBlocked.forEach(extension ->
+                verdicts.put(extension, new ExtensionVerdict(extension, ExtensionBlockType.FIXED)));
+        this.blockedVerdicts = Map.copyOf(verdicts);
+        this.suffixTrie = new ExtensionSuffixTrie(this.blockedVerdicts);
+    }
+
+    public static ExtensionPolicy of(long version, Collection<String> fixedBlocked, Collection<String> customBlocked,
+                                     boolean checkInnerSegments) {
+        return new ExtensionPolicy(version, Set.copyOf(fixedBlocked), Set.copyOf(customBlocked), checkInnerSegments);
+    }
+
+    // extension_policy_version 테이블 기준으로 스냅샷을 만든 시점의 정책 버전
+    public long getVersion() {
+        return version;
+    }
+
+    // extension 은 소문자로 정규화된 값이어야 한다. "tar.gz" 처럼 여러 마디일 수도 있다
+    public ExtensionVerdict evaluate(String extension) {
+        ExtensionVerdict verdict = blockedVerdicts.get(extension);
+        if (verdict != null) {
+            return verdict;
+        }
+        // 한 마디 확장자는 정확히 일치하는 규칙만 해당되므로 트라이를 볼 필요가 없다
+        if (extension.indexOf('.') < 0) {
+            return ExtensionVerdict.allowed(extension);
+        }
+        verdict = suffixTrie.match(extension, true, checkInnerSegments);
+        return verdict != null ? verdict : ExtensionVerdict.allowed(extension);
+    }
+
+    public ExtensionVerdict evaluateFilename(String filename) {
+        ExtensionVerdict verdict = suffixTrie.match(filename, false, checkInnerSegments);
+        return verdict != null ? verdict : ExtensionVerdict.allowed(FileNameUtils.getFileExtension(filename));
+    }
+
+    public boolean isBlocked(String extension) {
+        return evaluate(extension).isBlocked();
+    }
+
+    public Set<String> getFixedBlocked() {
+        return fixedBlocked;
+    }
+
+    public Set<String> getCustomBlocked() {
+        return customBlocked;
+    }
+}
@@ -0,0 +1,8 @@
+package flow.domain.extension.policy;
+
+/**
+ * 고정/커스텀 확장자가 변경되었음을 알리는 이벤트.
+ * 트랜잭션 커밋 이후 {@link ExtensionPolicyHolder} 가 스냅샷을 다시 만든다.
+ */
+public class ExtensionPolicyChangedEvent {
+}
@@ -0,0 +1,169 @@
+package flow.domain.extension.policy;
+
+import flow.domain.extension.entity.ExtensionPolicyVersion;
+import flow.domain.extension.repository.CustomExtensionRepository;
+import flow.domain.extension.repository.ExtensionPolicyVersionRepository;
+import flow.domain.extension.repository.FixedExtensionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 메모리에 올려 둔 차단 확장자 정책 스냅샷을 보관한다.
+ * 정책이 바뀔 때마다 새 스냅샷을 만들어 참조만 교체하므로 조회 쪽은 락 없이 읽는다.
+ * 다른 인스턴스에서 일어난 변경은 정책 버전을 주기적으로 조회해서 따라잡는다.
+ */
+@Component
+@Slf4j
+public class ExtensionPolicyHolder {
+
+    private final FixedExtensionRepository fixedExtensionRepository;
+    private final CustomExtensionRepository customExtensionRepository;
+    private final ExtensionPolicyVersionRepository versionRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExtensionPolicyMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean checkInnerSegments;
+
+    // 로드 중에는 JDBC 를 기다리므로 synchronized 대신 ReentrantLock 을 쓴다. 가상 스레드가 캐리어 스레드를 붙잡지 않는다
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile ExtensionPolicy current;
+
+    public ExtensionPolicyHolder(FixedExtensionRepository fixedExtensionRepository,
+                                 CustomExtensionRepository customExtensionRepository,
+                                 ExtensionPolicyVersionRepository versionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ExtensionPolicyMetrics metrics,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.extension.policy.check-inner-segments:true}") boolean checkInnerSegments) {
+        this.fixedExtensionRepository = fixedExtensionRepository;
+        this.customExtensionRepository = customExtensionRepository;
+        this.versionRepository = versionRepository;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.checkInnerSegments = checkInnerSegments;
+
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void bindMetrics() {
+        metrics.bindPolicySize(this);
+    }
+
+    public ExtensionPolicy current() {
+        ExtensionPolicy policy = current;
+        metrics.recordSnapshotLookup(policy != null);
+        return policy != null ? policy : load();
+    }
+
+    // 지표 수집용. 조회 지표를 남기지 않고 로드도 하지 않는다. 아직 로드 전이면 null
+    public ExtensionPolicy peek() {
+        return current;
+    }
+
+    public ExtensionPolicy reload() {
+        return load();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            ensureVersionRow();
+            ExtensionPolicy policy = load();
+            log.info("확장자 정책 스냅샷 로드 완료: 버전 {}, 고정 {}개, 커스텀 {}개",
+                    policy.getVersion(), policy.getFixedBlocked().size(), policy.getCustomBlocked().size());
+        } catch (Exception e) {
+            log.error("확장자 정책 스냅샷 로드 실패", e);
+        }
+    }
+
+    // 커밋된 변경만 스냅샷에 반영되도록 커밋 이후 새 트랜잭션에서 다시 읽는다
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(ExtensionPolicyChangedEvent event) {
+        load();
+    }
+
+    // 버전 행 하나만 읽으므로 폴링 비용은 PK 조회 한 번이다
+    @Scheduled(fixedDelayString = "${app.extension.policy.poll-interval-ms:2000}",
+            initialDelayString = "${app.extension.policy.poll-interval-ms:2000}")
+    public void pollVersion() {
+        try {
+            refreshIfStale();
+        } catch (Exception e) {
+            log.warn("확장자 정책 버전 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    public boolean refreshIfStale() {
+        Long latestVersion = readTransaction.execute(status ->
+                versionRepository.findCurrentVersion().orElse(0L));
+        ExtensionPolicy policy = current;
+        if (policy != null && latestVersion != null && policy.getVersion() == latestVersion) {
+            metrics.recordVersionPoll(false);
+            return false;
+        }
+
+        metrics.recordVersionPoll(true);
+        ExtensionPolicy reloaded = load();
+        log.info("다른 인스턴스의 확장자 정책 변경 반영: 버전 {}", reloaded.getVersion());
+        return true;
+    }
+
+    // 로드를 직렬화해서 늦게 끝난 이전 로드가 최신 스냅샷을 덮어쓰지 않게 한다
+    private ExtensionPolicy load() {
+        loadLock.lock();
+        try {
+            ExtensionPolicy policy = readTransaction.execute(status -> ExtensionPolicy.of(
+                    versionRepository.findCurrentVersion().orElse(0L),
+                    fixedExtensionRepository.findBlockedExtensions(),
+                    customExtensionRepository.findBlockedExtensions(),
+                    checkInnerSegments));
+
+            ExtensionPolicy previous = current;
+            if (previous != null && previous.getVersion() > policy.getVersion()) {
+                return previous;
+            }
+
+            current = policy;
+            eventPublisher.publishEvent(new ExtensionPolicySwappedEvent(previous, policy));
+            log.debug("확장자 정책 스냅샷 교체: 버전 {}, 고정 {}개, 커스텀 {}개",
+                    policy.getVersion(), policy.getFixedBlocked().size(), policy.getCustomBlocked().size());
+            return policy;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void ensureVersionRow() {
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                if (!versionRepository.existsById(ExtensionPolicyVersion.SINGLETON_ID)) {
+                    versionRepository.save(new ExtensionPolicyVersion(0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 인스턴스가 먼저 생성한 경우
+            log.debug("확장자 정책 버전 행이 이미 존재합니다.");
+        }
+    }
+}
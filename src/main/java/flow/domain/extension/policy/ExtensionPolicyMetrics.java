@@ -0,0 +1,146 @@
+package flow.domain.extension.policy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 확장자 정책 판정에 대한 Micrometer 지표.
+ * extension 태그는 판정 결과마다 상한 개수까지만 쓰고 나머지는 "other" 로 묶는다.
+ * 정책에서 빠진 차단 규칙의 카운터는 스냅샷이 바뀔 때 지워서 가져오기/교체를 반복해도 지표 수가 늘어나지 않는다.
+ */
+@Component
+public class ExtensionPolicyMetrics {
+
+    private static final int MAX_EXTENSION_TAGS_PER_OUTCOME = 100;
+    private static final int MAX_EXTENSION_TAG_LENGTH = 20;
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ExtensionBlockType, Timer> evaluationTimers = new EnumMap<>(ExtensionBlockType.class);
+    private final Map<ExtensionBlockType, Map<String, Counter>> decisionCounters = new EnumMap<>(ExtensionBlockType.class);
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    private final Counter pollUnchanged;
+    private final Counter pollReloaded;
+
+    public ExtensionPolicyMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (ExtensionBlockType blockType : ExtensionBlockType.values()) {
+            evaluationTimers.put(blockType, Timer.builder("extension.policy.evaluation")
+                    .description("확장자 정책 판정 소요 시간")
+                    .tag("outcome", outcome(blockType))
+                    .register(meterRegistry));
+            decisionCounters.put(blockType, new ConcurrentHashMap<>());
+        }
+
+        this.snapshotHits = Counter.builder("extension.policy.snapshot.lookups")
+                .description("정책 스냅샷 조회 (miss 는 DB 에서 다시 읽은 경우)")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.snapshotMisses = Counter.builder("extension.policy.snapshot.lookups")
+                .description("정책 스냅샷 조회 (miss 는 DB 에서 다시 읽은 경우)")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.pollUnchanged = Counter.builder("extension.policy.version.polls")
+                .description("정책 버전 폴링 결과")
+                .tag("result", "unchanged")
+                .register(meterRegistry);
+        this.pollReloaded = Counter.builder("extension.policy.version.polls")
+                .description("정책 버전 폴링 결과")
+                .tag("result", "reloaded")
+                .register(meterRegistry);
+    }
+
+    // 스크레이프가 스냅샷 조회 지표를 부풀리거나 DB 로드를 일으키지 않도록 현재 참조만 읽는다
+    public void bindPolicySize(ExtensionPolicyHolder holder) {
+        Gauge.builder("extension.policy.size", holder, h -> snapshotValue(h, p -> p.getFixedBlocked().size()))
+                .description("차단 중인 확장자 수")
+                .tag("list", "fixed")
+                .register(meterRegistry);
+        Gauge.builder("extension.policy.size", holder, h -> snapshotValue(h, p -> p.getCustomBlocked().size()))
+                .description("차단 중인 확장자 수")
+                .tag("list", "custom")
+                .register(meterRegistry);
+        Gauge.builder("extension.policy.version", holder, h -> snapshotValue(h, ExtensionPolicy::getVersion))
+                .description("현재 스냅샷의 정책 버전")
+                .register(meterRegistry);
+    }
+
+    private static double snapshotValue(ExtensionPolicyHolder holder, ToDoubleFunction<ExtensionPolicy> value) {
+        ExtensionPolicy policy = holder.peek();
+        return policy != null ? value.applyAsDouble(policy) : Double.NaN;
+    }
+
+    public void recordEvaluation(ExtensionVerdict verdict, long startNanos) {
+        ExtensionBlockType blockType = verdict.getBlockType();
+        evaluationTimers.get(blockType).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        decisionCounter(blockType, verdict.getExtension()).increment();
+    }
+
+    public void recordSnapshotLookup(boolean hit) {
+        (hit ? snapshotHits : snapshotMisses).increment();
+    }
+
+    public void recordVersionPoll(boolean reloaded) {
+        (reloaded ? pollReloaded : pollUnchanged).increment();
+    }
+
+    private Counter decisionCounter(ExtensionBlockType blockType, String extension) {
+        Map<String, Counter> counters = decisionCounters.get(blockType);
+        Counter counter = counters.get(extension);
+        if (counter != null) {
+            return counter;
+        }
+
+        String tag = extension;
+        if (extension.isEmpty() || extension.length() > MAX_EXTENSION_TAG_LENGTH
+                || counters.size() >= MAX_EXTENSION_TAGS_PER_OUTCOME) {
+            tag = OTHER;
+        }
+        String extensionTag = tag;
+        return counters.computeIfAbsent(extensionTag, key -> Counter.builder("extension.policy.decisions")
+                .description("확장자 정책 판정 수")
+                .tag("outcome", outcome(blockType))
+                .tag("extension", extensionTag)
+                .register(meterRegistry));
+    }
+
+    @EventListener
+    public void onPolicySwapped(ExtensionPolicySwappedEvent event) {
+        ExtensionPolicy policy = event.getCurrent();
+        removeRetiredRules(ExtensionBlockType.FIXED, policy.getFixedBlocked());
+        removeRetiredRules(ExtensionBlockType.CUSTOM, policy.getCustomBlocked());
+    }
+
+    // 차단 판정은 정책 규칙마다 카운터가 생기므로 규칙이 빠지면 카운터도 레지스트리에서 내린다
+    private void removeRetiredRules(ExtensionBlockType blockType, Set<String> blocked) {
+        decisionCounters.get(blockType).entrySet().removeIf(entry -> {
+            if (entry.getKey().equals(OTHER) || blocked.contains(entry.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue());
+            return true;
+        });
+    }
+
+    private static String outcome(ExtensionBlockType blockType) {
+        return switch (blockType) {
+            case FIXED -> "fixed-blocked";
+            case CUSTOM -> "custom-blocked";
+            case MISSING -> "missing-extension";
+            case NONE -> "allowed";
+        };
+    }
+}
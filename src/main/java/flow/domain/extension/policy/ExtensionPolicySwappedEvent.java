@@ -0,0 +1,25 @@
+package flow.domain.extension.policy;
+
+/**
+ * 이 인스턴스의 정책 스냅샷이 교체되었음을 알린다.
+ * 로컬 변경이든 다른 인스턴스의 변경을 폴링으로 받은 것이든 모두 발행된다.
+ */
+public class ExtensionPolicySwappedEvent {
+
+    private final ExtensionPolicy previous;
+    private final ExtensionPolicy current;
+
+    public ExtensionPolicySwappedEvent(ExtensionPolicy previous, ExtensionPolicy current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    // 최초 로드라면 null
+    public ExtensionPolicy getPrevious() {
+        return previous;
+    }
+
+    public ExtensionPolicy getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,100 @@
+package flow.domain.extension.policy;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 차단 규칙을 뒤집어서 저장한 접미사 트라이.
+ * 파일명을 뒤에서부터 한 번 훑으면서 "tar.gz" 같은 여러 마디 규칙과
+ * "invoice.exe.pdf" 처럼 중간에 숨은 확장자까지 찾는다.
+ * 한 위치에서 따라가는 깊이는 가장 긴 규칙 길이로 제한되므로 비용은 규칙 수와 무관하게 파일명 길이에 비례한다.
+ */
+final class ExtensionSuffixTrie {
+
+    private final Node root = new Node();
+
+    ExtensionSuffixTrie(Map<String, ExtensionVerdict> rules) {
+        rules.forEach(this::insert);
+    }
+
+    /**
+     * @param name            검사할 이름 (파일명 또는 확장자)
+     * @param leadingBoundary true 이면 name 의 시작도 점 바로 뒤로 본다 (확장자만 넘긴 경우)
+     * @param innerSegments   true 이면 마지막 마디뿐 아니라 중간 마디도 검사한다
+     * @return 일치한 규칙의 판정. 고정 확장자가 커스텀보다 우선한다. 없으면 null
+     */
+    ExtensionVerdict match(String name, boolean leadingBoundary, boolean innerSegments) {
+        ExtensionVerdict matched = null;
+        int matchedEnd = -1;
+        int segmentEnd = name.length();
+
+        while (segmentEnd > 0) {
+            Node node = root;
+            for (int i = segmentEnd - 1; i >= 0; i--) {
+                node = node.child(Character.toLowerCase(name.charAt(i)));
+                if (node == null) {
+                    break;
+                }
+                if (node.verdict != null && isSegmentStart(name, i, leadingBoundary)) {
+                    if (node.verdict.getBlockType() == ExtensionBlockType.FIXED) {
+                        return node.verdict;
+                    }
+                    // 같은 위치에서 끝나는 규칙 중에서는 더 긴 규칙(tar.gz > gz)을 남긴다
+                    if (matched == null || segmentEnd == matchedEnd) {
+                        matched = node.verdict;
+                        matchedEnd = segmentEnd;
+                    }
+                }
+            }
+
+            if (!innerSegments) {
+                break;
+            }
+            // 다음 마디는 바로 앞 점 직전에서 끝난다
+            segmentEnd = name.lastIndexOf('.', segmentEnd - 1);
+        }
+        return matched;
+    }
+
+    private static boolean isSegmentStart(String name, int index, boolean leadingBoundary) {
+        return index == 0 ? leadingBoundary : name.charAt(index - 1) == '.';
+    }
+
+    private void insert(String rule, ExtensionVerdict verdict) {
+        Node node = root;
+        for (int i = rule.length() - 1; i >= 0; i--) {
+            node = node.getOrCreateChild(rule.charAt(i));
+        }
+        node.verdict = verdict;
+    }
+
+    // 규칙 문자는 영문 소문자, 숫자, 점뿐이라 자식 수가 적어서 배열을 선형 탐색한다
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private ExtensionVerdict verdict;
+
+        Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrCreateChild(char key) {
+            Node existing = child(key);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package flow.domain.extension.policy;
+
+import lombok.Getter;
+
+/**
+ * 확장자 하나에 대한 차단 판정 결과.
+ * 차단 여부와 어느 목록에서 차단되었는지를 한 번의 평가로 돌려준다.
+ */
+@Getter
+public final class ExtensionVerdict {
+
+    private final String extension;
+    private final ExtensionBlockType blockType;
+
+    public ExtensionVerdict(String extension, ExtensionBlockType blockType) {
+        this.extension = extension;
+        this.blockType = blockType;
+    }
+
+    public static ExtensionVerdict allowed(String extension) {
+        return new ExtensionVerdict(extension, ExtensionBlockType.NONE);
+    }
+
+    public static ExtensionVerdict missingExtension() {
+        return new ExtensionVerdict("", ExtensionBlockType.MISSING);
+    }
+
+    public boolean isBlocked() {
+        return blockType != ExtensionBlockType.NONE;
+    }
+}
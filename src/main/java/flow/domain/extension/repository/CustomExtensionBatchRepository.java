@@ -0,0 +1,9 @@
+package flow.domain.extension.repository;
+
+import java.util.Collection;
+
+public interface CustomExtensionBatchRepository {
+
+    // JPA IDENTITY 전략은 배치 INSERT 가 되지 않으므로 JDBC 배치로 한 번에 넣는다
+    int insertAll(Collection<String> extensions);
+}
@@ -0,0 +1,33 @@
+package flow.domain.extension.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class CustomExtensionBatchRepositoryImpl implements CustomExtensionBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO custom_extensions (extension, is_blocked, created_at, updated_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(Collection<String> extensions) {
+        if (extensions.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, extensions, extensions.size(), (ps, extension) -> {
+            ps.setString(1, extension);
+            ps.setBoolean(2, true);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+        });
+        return extensions.size();
+    }
+}
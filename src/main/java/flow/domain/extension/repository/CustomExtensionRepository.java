@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomExtensionRepository extends JpaRepository<CustomExtension, Long> {
+public interface CustomExtensionRepository extends JpaRepository<CustomExtension, Long>, CustomExtensionBatchRepository {
 
     Optional<CustomExtension> findByExtension(String extension);
 
@@ -22,4 +22,7 @@ public interface CustomExtensionRepository extends JpaRepository<CustomExtension
     @Query("SELECT c.extension FROM CustomExtension c WHERE c.isBlocked = true")
     List<String> findBlockedExtensions();
 
+    @Query("SELECT c.extension FROM CustomExtension c")
+    List<String> findAllExtensions();
+
 }
\ No newline at end of file
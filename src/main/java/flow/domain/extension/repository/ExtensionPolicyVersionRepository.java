@@ -0,0 +1,20 @@
+package flow.domain.extension.repository;
+import flow.domain.extension.entity.ExtensionPolicyVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExtensionPolicyVersionRepository extends JpaRepository<ExtensionPolicyVersion, Long> {
+
+    @Query("SELECT v.version FROM ExtensionPolicyVersion v WHERE v.id = 1")
+    Optional<Long> findCurrentVersion();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ExtensionPolicyVersion v SET v.version = v.version + 1 WHERE v.id = 1")
+    int increment();
+
+}
@@ -22,4 +22,7 @@ public interface FixedExtensionRepository extends JpaRepository<FixedExtension,
     @Query("SELECT f.extension FROM FixedExtension f WHERE f.isBlocked = true")
     List<String> findBlockedExtensions();
 
+    @Query("SELECT f.extension FROM FixedExtension f")
+    List<String> findAllExtensions();
+
 }
\ No newline at end of file
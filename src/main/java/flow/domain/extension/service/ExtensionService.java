@@ -2,6 +2,7 @@ package flow.domain.extension.service;
 
 import flow.domain.extension.entity.CustomExtension;
 import flow.domain.extension.entity.FixedExtension;
+import flow.domain.extension.policy.ExtensionVerdict;
 
 import java.util.List;
 
@@ -19,16 +20,28 @@ public interface ExtensionService {
 
     CustomExtension addCustomExtension(String extension);
 
+    int importCustomExtensions(List<String> extensions);
+
+    int replaceCustomExtensions(List<String> extensions);
+
     void deleteCustomExtension(Long id);
 
     void deleteCustomExtensionByExtension(String extension);
 
+    ExtensionVerdict evaluateExtension(String extension);
+
+    ExtensionVerdict evaluateFilename(String filename);
+
+    List<ExtensionVerdict> evaluateBatch(List<String> filenames, List<String> extensions);
+
     boolean isExtensionBlocked(String extension);
 
     String getExtensionBlockType(String extension);
 
     List<String> getAllBlockedExtensions();
 
+    long getPolicyVersion();
+
     void initializeFixedExtensions();
 
     boolean validateExtension(String extension);
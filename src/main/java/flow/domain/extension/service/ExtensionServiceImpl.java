@@ -1,17 +1,31 @@
 package flow.domain.extension.service;
 
 import flow.common.exception.BusinessException;
+import flow.common.util.FileNameUtils;
 import flow.domain.extension.entity.CustomExtension;
+import flow.domain.extension.entity.ExtensionPolicyVersion;
 import flow.domain.extension.repository.CustomExtensionRepository;
 import flow.domain.extension.entity.FixedExtension;
+import flow.domain.extension.policy.ExtensionPolicy;
+import flow.domain.extension.policy.ExtensionPolicyChangedEvent;
+import flow.domain.extension.policy.ExtensionPolicyHolder;
+import flow.domain.extension.policy.ExtensionPolicyMetrics;
+import flow.domain.extension.policy.ExtensionVerdict;
+import flow.domain.extension.repository.ExtensionPolicyVersionRepository;
 import flow.domain.extension.repository.FixedExtensionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 @Service
@@ -22,6 +36,10 @@ public class ExtensionServiceImpl implements ExtensionService {
 
     private final FixedExtensionRepository fixedExtensionRepository;
     private final CustomExtensionRepository customExtensionRepository;
+    private final ExtensionPolicyVersionRepository policyVersionRepository;
+    private final ExtensionPolicyHolder extensionPolicyHolder;
+    private final ExtensionPolicyMetrics policyMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final List<String> DEFAULT_FIXED_EXTENSIONS = Arrays.asList(
             "bat", "cmd", "com", "cpl", "exe", "scr", "js"
@@ -49,7 +67,9 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .orElseThrow(() -> BusinessException.notFound("고정 확장자를 찾을 수 없습니다: " + extension));
 
         fixedExtension.updateBlockStatus(isBlocked);
-        return fixedExtensionRepository.save(fixedExtension);
+        FixedExtension saved = fixedExtensionRepository.save(fixedExtension);
+        publishPolicyChanged();
+        return saved;
     }
 
     @Override
@@ -60,7 +80,7 @@ public class ExtensionServiceImpl implements ExtensionService {
             throw BusinessException.badRequest("유효하지 않은 확장자입니다: " + extension);
         }
 
-        if (fixedExtensionRepository.findAll().size() >= MAX_FIXED_EXTENSIONS) {
+        if (fixedExtensionRepository.count() >= MAX_FIXED_EXTENSIONS) {
             throw BusinessException.badRequest("고정 확장자는 최대 " + MAX_FIXED_EXTENSIONS + "개까지 추가할 수 있습니다.");
         }
 
@@ -78,7 +98,9 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .description(description != null ? description : getExtensionDescription(normalizedExtension))
                 .build();
 
-        return fixedExtensionRepository.save(fixedExtension);
+        FixedExtension saved = fixedExtensionRepository.save(fixedExtension);
+        publishPolicyChanged();
+        return saved;
     }
 
     @Override
@@ -87,6 +109,7 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .orElseThrow(() -> BusinessException.notFound("고정 확장자를 찾을 수 없습니다."));
 
         fixedExtensionRepository.delete(fixedExtension);
+        publishPolicyChanged();
     }
 
     @Override
@@ -97,7 +120,7 @@ public class ExtensionServiceImpl implements ExtensionService {
             throw BusinessException.badRequest("유효하지 않은 확장자입니다: " + extension);
         }
 
-        if (customExtensionRepository.findAll().size() >= MAX_CUSTOM_EXTENSIONS) {
+        if (customExtensionRepository.count() >= MAX_CUSTOM_EXTENSIONS) {
             throw BusinessException.badRequest("커스텀 확장자는 최대 " + MAX_CUSTOM_EXTENSIONS + "개까지 추가할 수 있습니다.");
         }
 
@@ -113,7 +136,43 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .extension(normalizedExtension)
                 .build();
 
-        return customExtensionRepository.save(customExtension);
+        CustomExtension saved = customExtensionRepository.save(customExtension);
+        publishPolicyChanged();
+        return saved;
+    }
+
+    @Override
+    public int importCustomExtensions(List<String> extensions) {
+        // 버전 행을 먼저 갱신해서 동시에 들어온 정책 변경과 직렬화한다
+        publishPolicyChanged();
+
+        Set<String> requested = normalizeCustomExtensions(extensions);
+        Set<String> existing = new HashSet<>(customExtensionRepository.findAllExtensions());
+        requested.removeAll(existing);
+
+        if (existing.size() + requested.size() > MAX_CUSTOM_EXTENSIONS) {
+            throw BusinessException.badRequest("커스텀 확장자는 최대 " + MAX_CUSTOM_EXTENSIONS + "개까지 추가할 수 있습니다.");
+        }
+
+        int inserted = customExtensionRepository.insertAll(requested);
+        log.info("커스텀 확장자 일괄 추가: 요청 {}개, 추가 {}개", extensions.size(), inserted);
+        return inserted;
+    }
+
+    @Override
+    public int replaceCustomExtensions(List<String> extensions) {
+        // 버전 행을 먼저 갱신해서 동시에 들어온 정책 변경과 직렬화한다
+        publishPolicyChanged();
+
+        Set<String> requested = normalizeCustomExtensions(extensions);
+        if (requested.size() > MAX_CUSTOM_EXTENSIONS) {
+            throw BusinessException.badRequest("커스텀 확장자는 최대 " + MAX_CUSTOM_EXTENSIONS + "개까지 추가할 수 있습니다.");
+        }
+
+        customExtensionRepository.deleteAllInBatch();
+        int inserted = customExtensionRepository.insertAll(requested);
+        log.info("커스텀 확장자 전체 교체: {}개", inserted);
+        return inserted;
     }
 
     @Override
@@ -122,6 +181,7 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .orElseThrow(() -> BusinessException.notFound("커스텀 확장자를 찾을 수 없습니다."));
 
         customExtensionRepository.delete(customExtension);
+        publishPolicyChanged();
     }
 
     @Override
@@ -131,62 +191,86 @@ public class ExtensionServiceImpl implements ExtensionService {
                 .orElseThrow(() -> BusinessException.notFound("커스텀 확장자를 찾을 수 없습니다: " + extension));
 
         customExtensionRepository.delete(customExtension);
+        publishPolicyChanged();
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public boolean isExtensionBlocked(String extension) {
-        String normalizedExtension = extension.toLowerCase();
-
-        boolean isFixedBlocked = fixedExtensionRepository.findByExtension(normalizedExtension)
-                .map(FixedExtension::isBlocked)
-                .orElse(false);
-
-        boolean isCustomBlocked = customExtensionRepository.findByExtension(normalizedExtension)
-                .map(CustomExtension::isBlocked)
-                .orElse(false);
-
-        return isFixedBlocked || isCustomBlocked;
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ExtensionVerdict evaluateExtension(String extension) {
+        long startNanos = System.nanoTime();
+        ExtensionVerdict verdict = extensionPolicyHolder.current().evaluate(extension.toLowerCase().trim());
+        policyMetrics.recordEvaluation(verdict, startNanos);
+        return verdict;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public String getExtensionBlockType(String extension) {
-        String normalizedExtension = extension.toLowerCase();
-
-        // 고정 확장자에서 차단되는지 확인
-        boolean isFixedBlocked = fixedExtensionRepository.findByExtension(normalizedExtension)
-                .map(FixedExtension::isBlocked)
-                .orElse(false);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ExtensionVerdict evaluateFilename(String filename) {
+        long startNanos = System.nanoTime();
+        ExtensionVerdict verdict = evaluateFilename(extensionPolicyHolder.current(), filename);
+        policyMetrics.recordEvaluation(verdict, startNanos);
+        return verdict;
+    }
 
-        if (isFixedBlocked) {
-            return "fixed";
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ExtensionVerdict> evaluateBatch(List<String> filenames, List<String> extensions) {
+        // 모든 항목을 같은 스냅샷으로 평가한다
+        ExtensionPolicy policy = extensionPolicyHolder.current();
+        List<ExtensionVerdict> verdicts = new ArrayList<>(filenames.size() + extensions.size());
+        for (String filename : filenames) {
+            long startNanos = System.nanoTime();
+            ExtensionVerdict verdict = evaluateFilename(policy, filename);
+            policyMetrics.recordEvaluation(verdict, startNanos);
+            verdicts.add(verdict);
         }
+        for (String extension : extensions) {
+            long startNanos = System.nanoTime();
+            ExtensionVerdict verdict = policy.evaluate(extension.toLowerCase().trim());
+            policyMetrics.recordEvaluation(verdict, startNanos);
+            verdicts.add(verdict);
+        }
+        return verdicts;
+    }
 
-        // 커스텀 확장자에서 차단되는지 확인
-        boolean isCustomBlocked = customExtensionRepository.findByExtension(normalizedExtension)
-                .map(CustomExtension::isBlocked)
-                .orElse(false);
-
-        if (isCustomBlocked) {
-            return "custom";
+    // 업로드 검사와 같은 판정을 내도록 확장자가 없는 파일명은 정책을 보기 전에 거절한다
+    private static ExtensionVerdict evaluateFilename(ExtensionPolicy policy, String filename) {
+        String trimmed = filename.trim();
+        if (FileNameUtils.getFileExtension(trimmed).isEmpty()) {
+            return ExtensionVerdict.missingExtension();
         }
+        return policy.evaluateFilename(trimmed);
+    }
 
-        return "none";
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isExtensionBlocked(String extension) {
+        return evaluateExtension(extension).isBlocked();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getExtensionBlockType(String extension) {
+        return evaluateExtension(extension).getBlockType().getValue();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<String> getAllBlockedExtensions() {
-        List<String> fixedBlocked = fixedExtensionRepository.findBlockedExtensions();
-        List<String> customBlocked = customExtensionRepository.findBlockedExtensions();
+        ExtensionPolicy policy = extensionPolicyHolder.current();
 
-        return Stream.concat(fixedBlocked.stream(), customBlocked.stream())
+        return Stream.concat(policy.getFixedBlocked().stream(), policy.getCustomBlocked().stream())
                 .distinct()
                 .sorted()
                 .toList();
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long getPolicyVersion() {
+        return extensionPolicyHolder.current().getVersion();
+    }
+
     @Override
     public void initializeFixedExtensions() {
         for (String extension : DEFAULT_FIXED_EXTENSIONS) {
@@ -201,6 +285,7 @@ public class ExtensionServiceImpl implements ExtensionService {
                 log.info("고정 확장자 초기화: {}", extension);
             }
         }
+        publishPolicyChanged();
     }
 
     @Override
@@ -214,7 +299,8 @@ public class ExtensionServiceImpl implements ExtensionService {
             return false;
         }
 
-        return trimmed.matches("^[a-zA-Z0-9]+$");
+        // "tar.gz" 같은 여러 마디 확장자도 허용한다
+        return trimmed.matches("^[a-zA-Z0-9]+(\\.[a-zA-Z0-9]+)*$");
     }
 
 
@@ -224,6 +310,7 @@ public class ExtensionServiceImpl implements ExtensionService {
         List<CustomExtension> allCustomExtensions = customExtensionRepository.findAll();
         int count = allCustomExtensions.size();
         customExtensionRepository.deleteAll();
+        publishPolicyChanged();
         log.info("모든 커스텀 확장자 삭제됨: {}개", count);
         return count;
     }
@@ -249,9 +336,47 @@ public class ExtensionServiceImpl implements ExtensionService {
                 fixedExtensionRepository.save(fixedExtension);
             }
         }
+        publishPolicyChanged();
         log.info("기본 고정 확장자 {}개 초기화 완료", defaultExtensions.length);
     }
 
+    // 요청 전체를 메모리에서 검증하고 중복을 제거한다. 하나라도 잘못되면 아무것도 저장하지 않는다
+    private Set<String> normalizeCustomExtensions(List<String> extensions) {
+        Set<String> normalized = new LinkedHashSet<>();
+        List<String> invalid = new ArrayList<>();
+        for (String extension : extensions) {
+            String normalizedExtension = extension == null ? "" : extension.toLowerCase().trim();
+            if (!validateExtension(normalizedExtension)) {
+                invalid.add(extension);
+            } else {
+                normalized.add(normalizedExtension);
+            }
+        }
+
+        if (!invalid.isEmpty()) {
+            throw BusinessException.badRequest("유효하지 않은 확장자입니다: " + String.join(", ", invalid));
+        }
+
+        List<String> conflicts = fixedExtensionRepository.findAllExtensions().stream()
+                .filter(normalized::contains)
+                .sorted()
+                .toList();
+        if (!conflicts.isEmpty()) {
+            throw BusinessException.conflict("이미 고정 확장자에 존재합니다: " + String.join(", ", conflicts));
+        }
+
+        return normalized;
+    }
+
+    // 정책 버전은 변경과 같은 트랜잭션에서 올려서 다른 인스턴스가 폴링으로 감지하게 한다.
+    // 스냅샷 교체는 커밋 이후 ExtensionPolicyHolder 에서 처리된다
+    private void publishPolicyChanged() {
+        if (policyVersionRepository.increment() == 0) {
+            policyVersionRepository.save(new ExtensionPolicyVersion(1L));
+        }
+        eventPublisher.publishEvent(new ExtensionPolicyChangedEvent());
+    }
+
     private String getExtensionDescription(String extension) {
         return switch (extension) {
             case "bat" -> "배치 파일";
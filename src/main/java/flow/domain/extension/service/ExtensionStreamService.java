@@ -0,0 +1,10 @@
+package flow.domain.extension.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ExtensionStreamService {
+
+    SseEmitter subscribe();
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,247 @@
+package flow.domain.extension.service;
+
+import flow.common.exception.BusinessException;
+import flow.common.util.ThreadFactories;
+import flow.domain.extension.dto.ExtensionPolicyDeltaResponse;
+import flow.domain.extension.dto.ExtensionPolicySnapshotResponse;
+import flow.domain.extension.policy.ExtensionPolicyHolder;
+import flow.domain.extension.policy.ExtensionPolicySwappedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 확장자 정책 변경을 SSE 로 구독자에게 밀어준다.
+ * SseEmitter 는 비동기 서블릿 요청이라 대기 중인 구독자가 요청 스레드를 붙잡지 않는다.
+ * 어떤 구독자에게 무엇을 보낼지는 단일 스레드에서 순서대로 정해서 구독자마다 델타가 버전 순으로 쌓이게 한다.
+ * 첫 스냅샷도 같은 스레드에서 쌓고 그 자리에서 구독자로 등록하므로, 스냅샷 이후의 변경은 빠짐없이 델타로 받는다.
+ * 실제 전송은 구독자마다 길이 제한이 있는 큐에서 전송 스레드가 꺼내 보낸다. 느린 구독자는 자기 큐만 밀리고,
+ * 큐가 넘치면 연결을 끊는다. 클라이언트는 재연결해서 스냅샷부터 다시 받는다.
+ */
+@Service
+@Slf4j
+public class ExtensionStreamServiceImpl implements ExtensionStreamService {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String DELTA_EVENT = "delta";
+
+    private final ExtensionPolicyHolder extensionPolicyHolder;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxPendingEvents;
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // 스냅샷을 기다리는 구독자까지 센다. 등록된 구독자 수만 보면 한꺼번에 몰린 구독이 상한을 넘는다
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService broadcaster;
+    private final ExecutorService sender;
+
+    public ExtensionStreamServiceImpl(ExtensionPolicyHolder extensionPolicyHolder,
+                                      @Value("${app.extension.stream.timeout-ms:1800000}") long timeoutMillis,
+                                      @Value("${app.extension.stream.max-subscribers:10000}") int maxSubscribers,
+                                      @Value("${app.extension.stream.max-pending-events:64}") int maxPendingEvents,
+                                      @Value("${app.extension.stream.sender-threads:16}") int senderThreads,
+                                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.extensionPolicyHolder = extensionPolicyHolder;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingEvents = maxPendingEvents;
+        // 큐에 쌓는 순서를 지키기 위해 스레드 하나로 정한다. 이 스레드는 네트워크에 쓰지 않는다
+        this.broadcaster = Executors.newSingleThreadExecutor(
+                ThreadFactories.named("extension-policy-sse", virtualThreads));
+        // 가상 스레드면 막힌 전송이 캐리어 스레드를 잡지 않으므로 구독자마다 스레드를 쓴다
+        this.sender = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(ThreadFactories.named("extension-policy-sse-send", true))
+                : Executors.newFixedThreadPool(senderThreads,
+                        ThreadFactories.named("extension-policy-sse-send", false));
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessException("구독자 수가 너무 많습니다. 잠시 후 다시 시도해주세요.",
+                    HttpStatus.SERVICE_UNAVAILABLE, "TOO_MANY_SUBSCRIBERS");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // 재연결한 클라이언트도 전체 목록부터 다시 받고 이후 델타를 적용한다
+        broadcaster.execute(() -> enqueueSnapshot(subscriber));
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onPolicySwapped(ExtensionPolicySwappedEvent event) {
+        if (event.getPrevious() == null) {
+            return;
+        }
+
+        ExtensionPolicyDeltaResponse delta = ExtensionPolicyDeltaResponse.between(event.getPrevious(), event.getCurrent());
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        broadcaster.execute(() -> broadcast(delta.getVersion(), () -> SseEmitter.event()
+                .id(String.valueOf(delta.getVersion()))
+                .name(DELTA_EVENT)
+                .data(delta)));
+    }
+
+    // 끊긴 연결을 찾아내고 프록시가 유휴 연결을 닫지 않도록 주기적으로 주석 이벤트를 보낸다
+    @Scheduled(fixedRateString = "${app.extension.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcaster.execute(() -> broadcast(Long.MAX_VALUE, () -> SseEmitter.event().comment("heartbeat")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+        sender.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    // 브로드캐스터 스레드에서만 호출한다. 앞서 큐에 들어간 델타는 이 스냅샷에 이미 반영되어 있다
+    private void enqueueSnapshot(Subscriber subscriber) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        try {
+            ExtensionPolicySnapshotResponse snapshot =
+                    ExtensionPolicySnapshotResponse.from(extensionPolicyHolder.current());
+            subscriber.version = snapshot.getVersion();
+            subscribers.put(subscriber.emitter, subscriber);
+            subscriber.enqueue(SseEmitter.event()
+                    .id(String.valueOf(snapshot.getVersion()))
+                    .name(SNAPSHOT_EVENT)
+                    .data(snapshot));
+        } catch (Exception e) {
+            log.debug("SSE 스냅샷 준비 실패: {}", e.getMessage());
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    // SseEventBuilder 는 build 할 때마다 내용이 덧붙으므로 구독자마다 새로 만든다
+    // 스냅샷이 이미 version 을 반영한 구독자에게는 보내지 않는다
+    private void broadcast(long version, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.version < version) {
+                subscriber.enqueue(event.get());
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscribers.remove(subscriber.emitter, subscriber);
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // 브로드캐스터 스레드만 읽고 쓴다
+        private long version;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean overflowed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // 브로드캐스터 스레드에서 호출한다. 전송이 돌고 있지 않을 때만 전송 작업을 띄운다
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (overflowed) {
+                return;
+            }
+            boolean startDrain;
+            lock.lock();
+            try {
+                if (pending.size() >= maxPendingEvents) {
+                    pending.clear();
+                    overflowed = true;
+                } else {
+                    pending.add(event);
+                }
+                startDrain = !draining;
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+
+            if (overflowed) {
+                log.debug("SSE 구독자가 이벤트를 따라오지 못해 연결을 끊습니다.");
+                remove(this);
+            }
+            if (startDrain) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // 전송 스레드에서 큐가 빌 때까지 순서대로 보낸다. 막히는 전송은 이 구독자의 큐만 밀린다
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                lock.lock();
+                try {
+                    if (overflowed) {
+                        pending.clear();
+                        draining = false;
+                        break;
+                    }
+                    event = pending.poll();
+                    if (event == null || closed.get()) {
+                        pending.clear();
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    remove(this);
+                    log.debug("SSE 구독자 제거: {}", e.getMessage());
+                    return;
+                }
+            }
+            emitter.completeWithError(new IllegalStateException("SSE 구독자의 대기 이벤트가 너무 많습니다."));
+        }
+    }
+}
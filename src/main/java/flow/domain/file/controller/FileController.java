@@ -2,20 +2,28 @@ package flow.domain.file.controller;
 
 import flow.common.dto.ResponseApi;
 import flow.common.exception.BusinessException;
+import flow.domain.file.dto.FileBatchUploadResponse;
+import flow.domain.file.dto.FileBulkDeleteRequest;
+import flow.domain.file.dto.FileBulkDeleteResponse;
+import flow.domain.file.dto.FilePageResponse;
 import flow.domain.file.dto.FileResponse;
+import flow.domain.file.dto.StorageMigrationResponse;
 import flow.domain.file.entity.FileEntity;
+import flow.domain.file.service.FileDownloadWriter;
 import flow.domain.file.service.FileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -25,6 +33,7 @@ import java.util.List;
 public class FileController {
 
     private final FileService fileService;
+    private final FileDownloadWriter fileDownloadWriter;
 
     @PostMapping("/upload")
     public ResponseEntity<ResponseApi<FileResponse>> uploadFile(@RequestParam("file") MultipartFile file) {
@@ -38,6 +47,41 @@ public class FileController {
         }
     }
 
+    // 여러 파일을 한 번에 올린다. 일부가 실패해도 나머지는 저장되고 파일별 결과를 돌려준다
+    @PostMapping("/upload/batch")
+    public ResponseEntity<ResponseApi<FileBatchUploadResponse>> uploadFiles(
+            @RequestParam("files") List<MultipartFile> files) {
+        try {
+            FileBatchUploadResponse response = fileService.uploadFiles(files);
+            String message = String.format("파일 %d개 중 %d개 업로드", response.getRequested(), response.getUploaded());
+            return ResponseEntity.ok(ResponseApi.success(response, message));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
+    // multipart 를 쓰지 않고 요청 본문을 그대로 최종 위치에 기록한다. 임시 디렉토리에 먼저 저장하지 않는다
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseApi<FileResponse>> uploadFileStream(
+            @RequestParam("filename") String filename,
+            @RequestHeader(value = "X-File-Content-Type", required = false) String contentType,
+            HttpServletRequest request) {
+        try {
+            FileEntity uploadedFile = fileService.uploadFileStream(
+                    filename, contentType, request.getContentLengthLong(), request.getInputStream());
+            FileResponse response = FileResponse.from(uploadedFile);
+            return ResponseEntity.ok(ResponseApi.success(response, "파일이 성공적으로 업로드되었습니다."));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        } catch (IOException e) {
+            log.error("업로드 스트림 열기 실패: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ResponseApi.error("파일 저장에 실패했습니다.", "INTERNAL_SERVER_ERROR"));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<ResponseApi<List<FileResponse>>> getAllFiles() {
         List<FileEntity> files = fileService.getAllFiles();
@@ -48,6 +92,31 @@ public class FileController {
         return ResponseEntity.ok(ResponseApi.success(responses, message));
     }
 
+    // 감사용 전체 목록 내보내기. 응답을 메모리에 모으지 않고 읽는 대로 NDJSON 으로 흘려보낸다
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportFiles() {
+        StreamingResponseBody body = fileService::exportFiles;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.ndjson\"")
+                .body(body);
+    }
+
+    // 커서 기반 목록. 첫 페이지는 cursor 없이, 이후는 응답의 nextCursor 를 그대로 보낸다
+    @GetMapping("/page")
+    public ResponseEntity<ResponseApi<FilePageResponse>> getFilePage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        try {
+            FilePageResponse response = fileService.getFilePage(cursor, size, withTotal);
+            return ResponseEntity.ok(ResponseApi.success(response));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ResponseApi<FileResponse>> getFileById(@PathVariable Long id) {
         try {
@@ -60,24 +129,19 @@ public class FileController {
         }
     }
 
+    // Range 요청이면 206 으로 요청한 구간만 보낸다. 끊긴 다운로드를 이어받을 수 있다
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadFile(@PathVariable Long id) {
+    public void downloadFile(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         try {
             FileEntity file = fileService.getFileById(id);
-            Resource resource = fileService.downloadFile(id);
-
-            // 파일명 인코딩 (한글 파일명 지원)
-            String encodedFilename = URLEncoder.encode(file.getOriginalFilename(), StandardCharsets.UTF_8)
-                    .replace("+", "%20");
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + file.getOriginalFilename() + "\"; filename*=UTF-8''" + encodedFilename)
-                    .body(resource);
+            fileDownloadWriter.write(file, request, response);
         } catch (BusinessException e) {
             log.error("파일 다운로드 실패: {}", e.getMessage(), e);
-            return ResponseEntity.status(e.getStatus()).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(e.getStatus().value());
+            }
         }
     }
 
@@ -92,9 +156,37 @@ public class FileController {
         }
     }
 
+    // ids 또는 createdBefore 로 여러 파일을 한 번에 삭제하고 id 별 결과를 돌려준다
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ResponseApi<FileBulkDeleteResponse>> deleteFiles(
+            @Valid @RequestBody FileBulkDeleteRequest request) {
+        try {
+            FileBulkDeleteResponse response = fileService.deleteFiles(request);
+            String message = String.format("파일 %d개 삭제", response.getDeleted());
+            return ResponseEntity.ok(ResponseApi.success(response, message));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
     @PostMapping("/initialize")
     public ResponseEntity<ResponseApi<String>> initializeUploadDirectory() {
         fileService.initializeUploadDirectory();
         return ResponseEntity.ok(ResponseApi.success("업로드 디렉토리가 초기화되었습니다."));
     }
+
+    // 기존 파일을 해시 분할 디렉토리로 옮기고 file_path 를 배치 단위로 갱신한다. 서비스 중에도 실행할 수 있다
+    @PostMapping("/storage/migrate")
+    public ResponseEntity<ResponseApi<StorageMigrationResponse>> migrateStorageLayout(
+            @RequestParam(value = "batchSize", defaultValue = "500") int batchSize) {
+        try {
+            StorageMigrationResponse response = fileService.migrateStorageLayout(batchSize);
+            String message = String.format("파일 %d개 이전", response.getMoved());
+            return ResponseEntity.ok(ResponseApi.success(response, message));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package flow.domain.file.controller;
+
+import flow.common.dto.ResponseApi;
+import flow.common.exception.BusinessException;
+import flow.domain.file.dto.FileResponse;
+import flow.domain.file.dto.UploadSessionRequest;
+import flow.domain.file.dto.UploadSessionResponse;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 청크 업로드 API.
+ * 세션 생성 → 청크 전송 (순서 무관, 병렬 가능, 실패한 청크만 재전송) → 완료 순서로 호출한다.
+ */
+@RestController
+@RequestMapping("/api/files/uploads")
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<ResponseApi<UploadSessionResponse>> initUpload(
+            @Valid @RequestBody UploadSessionRequest request) {
+        try {
+            UploadSessionResponse response = uploadSessionService.initUpload(request);
+            return ResponseEntity.ok(ResponseApi.success(response, "업로드 세션이 생성되었습니다."));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
+    // 이어 올리기 전에 이미 받은 청크 목록을 확인한다
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<ResponseApi<UploadSessionResponse>> getUpload(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(ResponseApi.success(uploadSessionService.getUpload(sessionId)));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
+    @PutMapping(value = "/{sessionId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseApi<Void>> uploadChunk(@PathVariable String sessionId,
+                                                         @PathVariable int chunkIndex,
+                                                         HttpServletRequest request) {
+        try {
+            uploadSessionService.uploadChunk(sessionId, chunkIndex, request.getContentLengthLong(),
+                    request.getInputStream());
+            return ResponseEntity.ok(ResponseApi.success(null, "청크가 저장되었습니다."));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        } catch (IOException e) {
+            log.error("청크 스트림 열기 실패: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ResponseApi.error("청크 저장에 실패했습니다.", "INTERNAL_SERVER_ERROR"));
+        }
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<ResponseApi<FileResponse>> completeUpload(@PathVariable String sessionId) {
+        try {
+            FileEntity uploadedFile = uploadSessionService.completeUpload(sessionId);
+            FileResponse response = FileResponse.from(uploadedFile);
+            return ResponseEntity.ok(ResponseApi.success(response, "파일이 성공적으로 업로드되었습니다."));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<ResponseApi<Void>> abortUpload(@PathVariable String sessionId) {
+        try {
+            uploadSessionService.abortUpload(sessionId);
+            return ResponseEntity.ok(ResponseApi.success(null, "업로드가 취소되었습니다."));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ResponseApi.error(e.getMessage(), e.getErrorCode()));
+        }
+    }
+}
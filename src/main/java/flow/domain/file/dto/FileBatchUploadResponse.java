@@ -0,0 +1,32 @@
+package flow.domain.file.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBatchUploadResponse {
+
+    private int requested;
+    private int uploaded;
+    private List<FileUploadResult> results;
+
+    // 요청 순서대로 파일마다 하나씩. 실패한 파일은 file 이 없고 에러 정보만 채운다
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FileUploadResult {
+        private String originalFilename;
+        private boolean success;
+        private FileResponse file;
+        private String message;
+        private String errorCode;
+    }
+}
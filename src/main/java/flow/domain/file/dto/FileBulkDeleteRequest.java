@@ -0,0 +1,25 @@
+package flow.domain.file.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ids 와 createdBefore 중 하나만 지정한다
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBulkDeleteRequest {
+
+    @Size(max = 1000, message = "파일은 한 번에 최대 1000개까지 삭제할 수 있습니다.")
+    private List<@NotNull Long> ids;
+
+    // 이 시각 이전에 올라온 파일을 최대 1000개씩 삭제한다
+    private LocalDateTime createdBefore;
+}
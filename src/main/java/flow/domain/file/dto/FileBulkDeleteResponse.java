@@ -0,0 +1,32 @@
+package flow.domain.file.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBulkDeleteResponse {
+
+    private int requested;
+    private int deleted;
+    private List<FileDeleteResult> results;
+    // createdBefore 로 삭제할 때 조건에 맞는 파일이 더 남아 있으면 true
+    private boolean hasMore;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FileDeleteResult {
+        public static final String DELETED = "deleted";
+        public static final String NOT_FOUND = "not_found";
+
+        private Long id;
+        private String status;
+    }
+}
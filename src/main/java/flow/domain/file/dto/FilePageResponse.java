@@ -0,0 +1,22 @@
+package flow.domain.file.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilePageResponse {
+
+    private List<FileResponse> items;
+    // 다음 페이지를 요청할 때 cursor 로 그대로 보낸다. 마지막 페이지면 null
+    private String nextCursor;
+    private boolean hasNext;
+    // withTotal=true 로 요청했을 때만 채운다
+    private Long totalCount;
+}
@@ -18,6 +18,7 @@ public class FileResponse {
     private String originalFilename;
     private Long fileSize;
     private String contentType;
+    private String detectedContentType;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -27,6 +28,7 @@ public class FileResponse {
                 .originalFilename(fileEntity.getOriginalFilename())
                 .fileSize(fileEntity.getFileSize())
                 .contentType(fileEntity.getContentType())
+                .detectedContentType(fileEntity.getDetectedContentType())
                 .createdAt(fileEntity.getCreatedAt())
                 .updatedAt(fileEntity.getUpdatedAt())
                 .build();
@@ -0,0 +1,18 @@
+package flow.domain.file.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageMigrationResponse {
+
+    private int scanned;
+    private int moved;
+    private int skipped;
+    private int failed;
+}
@@ -0,0 +1,28 @@
+package flow.domain.file.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+
+    @NotBlank(message = "파일명을 입력해주세요.")
+    @Size(max = 255, message = "파일명은 최대 255자까지 입력 가능합니다.")
+    private String filename;
+
+    @NotNull(message = "파일 크기를 입력해주세요.")
+    @Positive(message = "파일 크기는 0보다 커야 합니다.")
+    private Long fileSize;
+
+    @Size(max = 100, message = "콘텐츠 타입은 최대 100자까지 입력 가능합니다.")
+    private String contentType;
+}
@@ -0,0 +1,37 @@
+package flow.domain.file.dto;
+
+import flow.domain.file.entity.UploadSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+
+    private String sessionId;
+    private String originalFilename;
+    private long totalSize;
+    private long chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+    private LocalDateTime expiresAt;
+
+    public static UploadSessionResponse of(UploadSession session, List<Integer> receivedChunks) {
+        return UploadSessionResponse.builder()
+                .sessionId(session.getId())
+                .originalFilename(session.getOriginalFilename())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(receivedChunks)
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
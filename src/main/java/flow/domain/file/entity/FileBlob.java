@@ -0,0 +1,46 @@
+package flow.domain.file.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 저장 모드에서 실제 바이트를 가진 저장 단위.
+ * 같은 내용의 파일은 SHA-256 해시 하나로 묶이고, 여러 {@link FileEntity} 가 참조 수로 공유한다.
+ */
+@Entity
+@Table(name = "file_blobs")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FileBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public FileBlob(String contentHash, Long fileSize, String filePath, long refCount) {
+        this.contentHash = contentHash;
+        this.fileSize = fileSize;
+        this.filePath = filePath;
+        this.refCount = refCount;
+    }
+}
@@ -0,0 +1,31 @@
+package flow.domain.file.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 파일 메타데이터 캐시 무효화 기록. 다른 인스턴스가 주기적으로 읽어 자기 캐시에서도 지운다.
+ * fileId 가 null 이면 캐시 전체를 비운다. 오래된 행은 보존 기간이 지나면 지운다.
+ */
+@Entity
+@Table(name = "file_cache_invalidations", indexes = {
+        @Index(name = "idx_file_cache_invalidations_created_at", columnList = "created_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FileCacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_id")
+    private Long fileId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
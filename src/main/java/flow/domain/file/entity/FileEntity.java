@@ -11,7 +11,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "files")
+@Table(name = "files", indexes = {
+        // 목록 키셋 페이지네이션 (created_at DESC, id DESC) 용
+        @Index(name = "idx_files_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_files_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_files_precompressed_encodings", columnList = "precompressed_encodings"),
+        // 세그먼트 압축에서 세그먼트별 파일을 찾는 용도 (file_path LIKE '세그먼트id:%')
+        @Index(name = "idx_files_storage_backend_path", columnList = "storage_backend, file_path")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,9 +41,22 @@ public class FileEntity {
     @Column(name = "content_type", length = 100)
     private String contentType;
 
+    // 클라이언트가 보낸 contentType 과 달리 파일 앞부분 시그니처로 판별한 형식
+    @Column(name = "detected_content_type", length = 100)
+    private String detectedContentType;
+
+    // 내용 주소 저장 모드로 올린 파일만 값이 있다. FileBlob 의 키
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // 저장소 안의 위치. 로컬 저장소는 파일 경로, 세그먼트 저장소는 "세그먼트id:오프셋:길이"
     @Column(name = "file_path", nullable = false, length = 500)
     private String filePath;
 
+    // FileStorage 이름. 값이 없는 기존 행은 로컬 저장소다
+    @Column(name = "storage_backend", length = 20)
+    private String storageBackend;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -44,4 +64,16 @@ public class FileEntity {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // 값이 있으면 삭제된 파일. 조회에서 제외되고 스위퍼가 실제 파일과 행을 정리한다
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // 원본 옆에 만들어 둔 압축 변형 (예: "zstd,gzip"). null 이면 아직 처리 전, 빈 문자열이면 변형 없음
+    @Column(name = "precompressed_encodings", length = 20)
+    private String precompressedEncodings;
+
+    // 스위퍼가 실제 파일 삭제에 실패한 횟수
+    @Column(name = "purge_attempts", nullable = false)
+    private int purgeAttempts;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package flow.domain.file.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 작은 파일을 이어 붙여 담는 세그먼트 파일 하나.
+ * size 는 기록된 끝 위치, liveBytes 는 아직 파일 행이 가리키는 바이트 수다. 둘의 차이가 압축으로 회수할 공간이다.
+ */
+@Entity
+@Table(name = "file_segments")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FileSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "live_bytes", nullable = false)
+    private long liveBytes;
+
+    // 마지막으로 이어 쓰거나 연 인스턴스가 살아 있다고 갱신한 시각. 죽은 인스턴스가 봉인하지 못한 세그먼트를 찾는 데 쓴다
+    @Column(name = "last_append_at")
+    private LocalDateTime lastAppendAt;
+
+    // 봉인된 세그먼트에는 더 이상 이어 쓰지 않는다. 압축 대상은 봉인되고 나서 유예 시간이 지난 것뿐이다
+    @Column(name = "sealed_at")
+    private LocalDateTime sealedAt;
+
+    // 압축으로 내용을 모두 옮긴 시각. 진행 중인 다운로드를 위해 유예 시간이 지난 뒤 파일을 지운다
+    @Column(name = "retired_at")
+    private LocalDateTime retiredAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public static FileSegment create() {
+        return new FileSegment();
+    }
+}
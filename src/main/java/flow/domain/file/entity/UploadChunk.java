@@ -0,0 +1,38 @@
+package flow.domain.file.entity;
+
+import flow.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 기록이 끝난 청크의 수신 기록. 이어 올리기 시 어떤 청크를 다시 보내야 하는지 알려준다
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_chunks_session_index", columnNames = {"session_id", "chunk_index"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadChunk extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false, length = 36)
+    private String sessionId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "chunk_size", nullable = false)
+    private long chunkSize;
+
+    @Builder
+    public UploadChunk(String sessionId, int chunkIndex, long chunkSize) {
+        this.sessionId = sessionId;
+        this.chunkIndex = chunkIndex;
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,79 @@
+package flow.domain.file.entity;
+
+import flow.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 청크 업로드 세션. 청크는 미리 전체 크기로 만들어 둔 임시 파일의 제 위치에 바로 기록된다.
+ * 완료되거나 중단되면 행을 지운다.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_sessions_expires_at", columnList = "expires_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadSession extends BaseEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "original_filename", nullable = false, length = 255)
+    private String originalFilename;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private long chunkSize;
+
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    @Column(name = "temp_path", nullable = false, length = 500)
+    private String tempPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private UploadSessionStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // 지금 기록 중인 청크 수. 0 일 때만 완료나 중단으로 넘어간다
+    @Column(name = "active_writes", nullable = false)
+    private int activeWrites;
+
+    @Builder
+    public UploadSession(String id, String originalFilename, String contentType, long totalSize, long chunkSize,
+                         String tempPath, LocalDateTime expiresAt) {
+        this.id = id;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.tempPath = tempPath;
+        this.status = UploadSessionStatus.UPLOADING;
+        this.expiresAt = expiresAt;
+    }
+
+    public long chunkOffset(int chunkIndex) {
+        return chunkIndex * chunkSize;
+    }
+
+    // 마지막 청크만 chunkSize 보다 짧을 수 있다
+    public long expectedChunkSize(int chunkIndex) {
+        return Math.min(chunkSize, totalSize - chunkOffset(chunkIndex));
+    }
+}
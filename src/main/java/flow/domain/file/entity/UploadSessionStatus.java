@@ -0,0 +1,8 @@
+package flow.domain.file.entity;
+
+public enum UploadSessionStatus {
+    UPLOADING,
+    COMPLETING,
+    // 중단이나 만료로 정리 중. 청크도 완료도 받지 않는다
+    ABORTED
+}
@@ -0,0 +1,11 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.FileEntity;
+
+import java.util.List;
+
+public interface FileBatchRepository {
+
+    // JPA IDENTITY 전략은 배치 INSERT 가 되지 않으므로 JDBC 배치로 한 번에 넣는다. id 는 채워지지 않는다
+    int insertAll(List<FileEntity> files);
+}
@@ -0,0 +1,44 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.FileEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FileBatchRepositoryImpl implements FileBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO files (original_filename, stored_filename, file_size, content_type, detected_content_type, "
+                    + "content_hash, file_path, storage_backend, purge_attempts, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int insertAll(List<FileEntity> files) {
+        if (files.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, files, files.size(), (ps, file) -> {
+            ps.setString(1, file.getOriginalFilename());
+            ps.setString(2, file.getStoredFilename());
+            ps.setLong(3, file.getFileSize());
+            ps.setString(4, file.getContentType());
+            ps.setString(5, file.getDetectedContentType());
+            ps.setString(6, file.getContentHash());
+            ps.setString(7, file.getFilePath());
+            ps.setString(8, file.getStorageBackend());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+        return files.size();
+    }
+}
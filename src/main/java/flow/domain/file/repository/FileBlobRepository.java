@@ -0,0 +1,44 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.FileBlob;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    // 참조 수는 읽고 쓰지 않고 UPDATE 한 번으로 바꿔서 동시 업로드/삭제 사이에 값이 어긋나지 않게 한다
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :contentHash")
+    int incrementRefCount(@Param("contentHash") String contentHash);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.contentHash = :contentHash AND b.refCount > 0")
+    int decrementRefCount(@Param("contentHash") String contentHash);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM FileBlob b WHERE b.contentHash = :contentHash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+
+    // 행이 없어도 그 키 자리가 잠기므로(REPEATABLE READ 의 갭 잠금) 같은 해시를 새로 등록하는 쪽은 잠금이 풀릴 때까지 기다린다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.contentHash = :contentHash")
+    Optional<FileBlob> findForUpdate(@Param("contentHash") String contentHash);
+
+    @Query("SELECT b FROM FileBlob b WHERE b.contentHash > :lastHash ORDER BY b.contentHash ASC")
+    List<FileBlob> findBlobsAfter(@Param("lastHash") String lastHash, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.filePath = :newPath WHERE b.contentHash = :contentHash AND b.filePath = :oldPath")
+    int updateFilePath(@Param("contentHash") String contentHash, @Param("oldPath") String oldPath,
+                       @Param("newPath") String newPath);
+}
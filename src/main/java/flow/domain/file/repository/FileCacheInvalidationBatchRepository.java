@@ -0,0 +1,10 @@
+package flow.domain.file.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface FileCacheInvalidationBatchRepository {
+
+    // 삭제 요청 하나가 천 개까지 무효화하므로 JDBC 배치로 넣는다. null 은 전체 무효화다
+    int insertAll(Collection<Long> fileIds, LocalDateTime createdAt);
+}
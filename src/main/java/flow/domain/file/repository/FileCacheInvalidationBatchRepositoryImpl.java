@@ -0,0 +1,40 @@
+package flow.domain.file.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FileCacheInvalidationBatchRepositoryImpl implements FileCacheInvalidationBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO file_cache_invalidations (file_id, created_at) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int insertAll(Collection<Long> fileIds, LocalDateTime createdAt) {
+        if (fileIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(fileIds);
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, ids, ids.size(), (ps, fileId) -> {
+            if (fileId != null) {
+                ps.setLong(1, fileId);
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setTimestamp(2, timestamp);
+        });
+        return ids.size();
+    }
+}
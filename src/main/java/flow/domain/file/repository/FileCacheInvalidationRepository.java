@@ -0,0 +1,26 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.FileCacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileCacheInvalidationRepository extends JpaRepository<FileCacheInvalidation, Long>,
+        FileCacheInvalidationBatchRepository {
+
+    @Query("SELECT i FROM FileCacheInvalidation i WHERE i.createdAt >= :since ORDER BY i.id ASC")
+    List<FileCacheInvalidation> findCreatedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FileCacheInvalidation i WHERE i.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,17 +1,120 @@
 package flow.domain.file.repository;
 
+import flow.domain.file.dto.FileResponse;
 import flow.domain.file.entity.FileEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface FileRepository extends JpaRepository<FileEntity, Long> {
+public interface FileRepository extends JpaRepository<FileEntity, Long>, FileBatchRepository {
 
-    @Query("SELECT f FROM FileEntity f ORDER BY f.createdAt DESC")
+    // 삭제 표시(deleted_at)된 행은 조회에서 모두 제외한다
+    @Query("SELECT f FROM FileEntity f WHERE f.deletedAt IS NULL ORDER BY f.createdAt DESC")
     List<FileEntity> findAllOrderByCreatedAtDesc();
 
+    @Query("SELECT f FROM FileEntity f WHERE f.id = :id AND f.deletedAt IS NULL")
+    Optional<FileEntity> findActiveById(@Param("id") Long id);
+
+    long countByDeletedAtIsNull();
+
     boolean existsByStoredFilename(String storedFilename);
+
+    List<FileEntity> findByStoredFilenameIn(Collection<String> storedFilenames);
+
+    // 엔티티 대신 응답 DTO 로 바로 조회한다. 다음 페이지 여부를 알 수 있도록 호출 쪽에서 size + 1 개를 요청한다
+    @Query("SELECT new flow.domain.file.dto.FileResponse(f.id, f.originalFilename, f.fileSize, f.contentType, "
+            + "f.detectedContentType, f.createdAt, f.updatedAt) "
+            + "FROM FileEntity f WHERE f.deletedAt IS NULL ORDER BY f.createdAt DESC, f.id DESC")
+    List<FileResponse> findFirstPage(Pageable pageable);
+
+    @Query("SELECT new flow.domain.file.dto.FileResponse(f.id, f.originalFilename, f.fileSize, f.contentType, "
+            + "f.detectedContentType, f.createdAt, f.updatedAt) "
+            + "FROM FileEntity f "
+            + "WHERE f.deletedAt IS NULL "
+            + "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) "
+            + "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FileResponse> findPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable pageable);
+
+    // 커서로 fetch size 만큼씩 받아오며 읽는다. 스트림을 다 읽을 때까지 트랜잭션이 열려 있어야 한다
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new flow.domain.file.dto.FileResponse(f.id, f.originalFilename, f.fileSize, f.contentType, "
+            + "f.detectedContentType, f.createdAt, f.updatedAt) "
+            + "FROM FileEntity f WHERE f.deletedAt IS NULL ORDER BY f.id ASC")
+    Stream<FileResponse> streamAll();
+
+    // 디렉토리 배치 이전 대상. 세그먼트에 묶인 파일은 제외한다
+    @Query("SELECT f FROM FileEntity f WHERE f.id > :lastId AND f.contentHash IS NULL AND f.deletedAt IS NULL "
+            + "AND (f.storageBackend IS NULL OR f.storageBackend = 'local') ORDER BY f.id ASC")
+    List<FileEntity> findUniqueFilesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 다른 요청이 그 사이 경로를 바꿨거나 행을 지웠으면 0 을 돌려준다. 압축 변형은 새 경로에서 다시 만든다
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.filePath = :newPath, f.precompressedEncodings = NULL "
+            + "WHERE f.id = :id AND f.filePath = :oldPath")
+    int updateFilePath(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.filePath = :filePath, f.precompressedEncodings = NULL "
+            + "WHERE f.contentHash = :contentHash")
+    int updateFilePathByContentHash(@Param("contentHash") String contentHash, @Param("filePath") String filePath);
+
+    // 삭제 표시된 행도 스위퍼가 정리할 때까지는 바이트를 가리키므로 함께 찾는다
+    @Query("SELECT f FROM FileEntity f WHERE f.storageBackend = :storageBackend AND f.filePath LIKE :locationPrefix")
+    List<FileEntity> findByStorageLocationPrefix(@Param("storageBackend") String storageBackend,
+                                                 @Param("locationPrefix") String locationPrefix);
+
+    @Query("SELECT f FROM FileEntity f WHERE f.precompressedEncodings IS NULL AND f.deletedAt IS NULL ORDER BY f.id ASC")
+    List<FileEntity> findPendingPrecompression(Pageable pageable);
+
+    // 처리하는 사이 경로가 바뀌었거나 삭제 표시된 행은 건드리지 않는다
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.precompressedEncodings = :encodings "
+            + "WHERE f.id = :id AND f.filePath = :filePath AND f.deletedAt IS NULL")
+    int updatePrecompressedEncodings(@Param("id") Long id, @Param("filePath") String filePath,
+                                     @Param("encodings") String encodings);
+
+    // 삭제 요청은 표시만 하고 바로 돌아간다. 실제 파일과 행은 FileSweeper 가 정리한다
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.deletedAt = :deletedAt WHERE f.id = :id AND f.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT f.id FROM FileEntity f WHERE f.id IN :ids AND f.deletedAt IS NULL")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT f.id FROM FileEntity f WHERE f.createdAt < :createdBefore AND f.deletedAt IS NULL ORDER BY f.id ASC")
+    List<Long> findActiveIdsCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.deletedAt = :deletedAt WHERE f.id IN :ids AND f.deletedAt IS NULL")
+    int markDeletedByIds(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // 다른 인스턴스의 스위퍼가 잡고 있는 행은 건너뛴다 (MariaDB 10.6+)
+    @Query(value = "SELECT * FROM files WHERE deleted_at IS NOT NULL AND purge_attempts < :maxAttempts "
+            + "ORDER BY deleted_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<FileEntity> claimTombstones(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM FileEntity f WHERE f.id IN :ids")
+    int purgeByIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.purgeAttempts = f.purgeAttempts + 1 WHERE f.id IN :ids")
+    int incrementPurgeAttempts(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.FileSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FileSegmentRepository extends JpaRepository<FileSegment, Long> {
+
+    // 봉인된 세그먼트면 0 을 돌려준다. 기록한 쪽은 새 세그먼트에 다시 쓴다
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.size = CASE WHEN s.size < :end THEN :end ELSE s.size END, "
+            + "s.liveBytes = s.liveBytes + :length, s.lastAppendAt = :now WHERE s.id = :id AND s.sealedAt IS NULL")
+    int recordAppend(@Param("id") Long id, @Param("end") long end, @Param("length") long length,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.liveBytes = s.liveBytes - :length WHERE s.id = :id AND s.liveBytes >= :length")
+    int releaseLive(@Param("id") Long id, @Param("length") long length);
+
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.sealedAt = :sealedAt WHERE s.id = :id AND s.sealedAt IS NULL")
+    int seal(@Param("id") Long id, @Param("sealedAt") LocalDateTime sealedAt);
+
+    // 기록하거나 준비해 둔 인스턴스가 살아 있다고 남긴다. 봉인된 세그먼트는 건드리지 않는다
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.lastAppendAt = :now WHERE s.id IN :ids AND s.sealedAt IS NULL")
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // 인스턴스가 죽어 봉인되지 못한 채 idleBefore 이후로 기록도 갱신도 없는 세그먼트를 봉인한다.
+    // 살아 있는 인스턴스는 열어 둔 세그먼트를 주기적으로 touch 하므로 대상이 되지 않는다
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.sealedAt = :sealedAt WHERE s.sealedAt IS NULL "
+            + "AND COALESCE(s.lastAppendAt, s.createdAt) < :idleBefore")
+    int sealIdle(@Param("sealedAt") LocalDateTime sealedAt, @Param("idleBefore") LocalDateTime idleBefore);
+
+    // 살아 있는 바이트 비율이 liveRatio 미만이거나 빈 세그먼트. 봉인 직전에 기록되고 아직 파일 행이 저장되지 않은 업로드가
+    // 있을 수 있으므로 sealedBefore 이전에 봉인된 것만 고른다
+    @Query("SELECT s FROM FileSegment s WHERE s.sealedAt < :sealedBefore AND s.retiredAt IS NULL "
+            + "AND (s.liveBytes = 0 OR s.liveBytes < s.size * :liveRatio) ORDER BY s.id ASC")
+    List<FileSegment> findCompactable(@Param("liveRatio") double liveRatio,
+                                      @Param("sealedBefore") LocalDateTime sealedBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FileSegment s SET s.retiredAt = :retiredAt WHERE s.id = :id AND s.retiredAt IS NULL")
+    int retire(@Param("id") Long id, @Param("retiredAt") LocalDateTime retiredAt);
+
+    @Query("SELECT s FROM FileSegment s WHERE s.retiredAt < :retiredBefore ORDER BY s.id ASC")
+    List<FileSegment> findRetiredBefore(@Param("retiredBefore") LocalDateTime retiredBefore, Pageable pageable);
+}
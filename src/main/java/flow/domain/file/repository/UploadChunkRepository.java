@@ -0,0 +1,27 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.UploadChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+
+    boolean existsBySessionIdAndChunkIndex(String sessionId, int chunkIndex);
+
+    long countBySessionId(String sessionId);
+
+    @Query("SELECT c.chunkIndex FROM UploadChunk c WHERE c.sessionId = :sessionId ORDER BY c.chunkIndex ASC")
+    List<Integer> findChunkIndexes(@Param("sessionId") String sessionId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadChunk c WHERE c.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,61 @@
+package flow.domain.file.repository;
+
+import flow.domain.file.entity.UploadSession;
+import flow.domain.file.entity.UploadSessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // 완료 요청이 동시에 두 번 와도 한쪽만 상태를 바꿀 수 있다
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.status = :to WHERE s.id = :id AND s.status = :from")
+    int updateStatus(@Param("id") String id, @Param("from") UploadSessionStatus from,
+                     @Param("to") UploadSessionStatus to);
+
+    // 기록 중인 청크가 없을 때만 완료로 넘어간다. 이후에는 새 청크 기록이 시작되지 않는다
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.status = :to "
+            + "WHERE s.id = :id AND s.status = :from AND s.activeWrites = 0")
+    int updateStatusIfIdle(@Param("id") String id, @Param("from") UploadSessionStatus from,
+                           @Param("to") UploadSessionStatus to);
+
+    // 만료 전이고 아직 받는 중인 세션에서만 기록을 시작할 수 있다
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.activeWrites = s.activeWrites + 1 "
+            + "WHERE s.id = :id AND s.status = :status AND s.expiresAt > :now")
+    int beginChunkWrite(@Param("id") String id, @Param("status") UploadSessionStatus status,
+                        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.activeWrites = s.activeWrites - 1 WHERE s.id = :id AND s.activeWrites > 0")
+    int endChunkWrite(@Param("id") String id);
+
+    /**
+     * 만료된 세션을 정리 대상으로 표시한다. 받는 중이고 기록 중인 청크가 없으면 바로,
+     * 그 밖의 상태는 abandonedBefore 보다 오래 전에 만료된 경우에만 표시한다 (인스턴스가 기록이나 완료 중에 죽은 경우).
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.status = :aborted WHERE s.id = :id AND s.expiresAt < :now "
+            + "AND ((s.status = :uploading AND s.activeWrites = 0) OR s.expiresAt < :abandonedBefore)")
+    int abortExpired(@Param("id") String id, @Param("uploading") UploadSessionStatus uploading,
+                     @Param("aborted") UploadSessionStatus aborted, @Param("now") LocalDateTime now,
+                     @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Query("SELECT s FROM UploadSession s WHERE s.expiresAt < :now ORDER BY s.expiresAt ASC")
+    List<UploadSession> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,124 @@
+package flow.domain.file.service;
+
+import flow.domain.file.entity.FileBlob;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.repository.FileBlobRepository;
+import flow.domain.file.repository.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 내용 주소 저장 모드의 참조 수를 관리한다.
+ * 같은 해시의 바이트는 한 번만 디스크에 두고, 마지막 참조가 사라질 때만 지운다.
+ */
+@Component
+@Slf4j
+public class FileBlobStore {
+
+    private final FileBlobRepository fileBlobRepository;
+    private final FileRepository fileRepository;
+    // 커밋 뒤 바이트 삭제는 원래 트랜잭션이 끝난 다음이라 새 트랜잭션에서 한다
+    private final TransactionTemplate purgeTransaction;
+
+    public FileBlobStore(FileBlobRepository fileBlobRepository,
+                         FileRepository fileRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.fileBlobRepository = fileBlobRepository;
+        this.fileRepository = fileRepository;
+        this.purgeTransaction = new TransactionTemplate(transactionManager);
+        this.purgeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 해시가 같은 저장 단위가 있으면 참조 수만 올리고, 없으면 임시 파일을 blobPath 로 옮겨 새로 등록한다.
+     * 동시에 같은 내용을 처음 올리면 한쪽은 PK 충돌(DataIntegrityViolationException)이 나므로 호출 쪽에서 다시 시도한다.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public FileEntity store(FileEntity.FileEntityBuilder fileBuilder, String contentHash, long fileSize,
+                            Path tempFile, Path blobPath) throws IOException {
+        String filePath;
+        if (fileBlobRepository.incrementRefCount(contentHash) > 0) {
+            filePath = fileBlobRepository.findById(contentHash)
+                    .map(FileBlob::getFilePath)
+                    .orElse(blobPath.toString());
+        } else {
+            fileBlobRepository.saveAndFlush(FileBlob.builder()
+                    .contentHash(contentHash)
+                    .fileSize(fileSize)
+                    .filePath(blobPath.toString())
+                    .refCount(1)
+                    .build());
+            // 행 잠금을 잡은 상태에서 옮기므로 같은 해시를 지우는 쪽과 순서가 엇갈리지 않는다
+            Files.move(tempFile, blobPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            filePath = blobPath.toString();
+        }
+
+        return fileRepository.save(fileBuilder
+                .storedFilename(contentHash)
+                .contentHash(contentHash)
+                .fileSize(fileSize)
+                .filePath(filePath)
+                .build());
+    }
+
+    /**
+     * 파일 행 삭제와 같은 트랜잭션에서 호출한다. 마지막 참조였으면 커밋된 뒤에 바이트까지 지운다.
+     * 커밋 전에 지우면 롤백으로 참조 수 1 인 행이 되살아났을 때 그 행이 없는 파일을 가리킨다.
+     * 바이트 삭제에 실패해도 참조 정리는 되돌리지 않는다. 남은 파일은 아무도 참조하지 않는 찌꺼기일 뿐이다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String contentHash) {
+        String filePath = fileBlobRepository.findById(contentHash)
+                .map(FileBlob::getFilePath)
+                .orElse(null);
+        if (filePath == null) {
+            log.warn("참조하는 저장 단위가 없습니다: {}", contentHash);
+            return;
+        }
+
+        fileBlobRepository.decrementRefCount(contentHash);
+        if (fileBlobRepository.deleteIfUnreferenced(contentHash) > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purgeIfUnreferenced(contentHash, Paths.get(filePath));
+                }
+            });
+        }
+    }
+
+    // 커밋과 삭제 사이에 같은 내용이 다시 올라와 행이 새로 생겼으면 그 바이트는 새 행의 것이므로 지우지 않는다.
+    // 잠금을 잡은 채로 지워서 새 등록이 파일을 옮겨 놓은 뒤에 지우는 일이 없게 한다
+    private void purgeIfUnreferenced(String contentHash, Path blobPath) {
+        try {
+            purgeTransaction.executeWithoutResult(status -> {
+                if (fileBlobRepository.findForUpdate(contentHash).isPresent()) {
+                    log.debug("삭제 전에 다시 등록된 저장 단위는 남깁니다: {}", contentHash);
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(blobPath);
+                    PrecompressedEncoding.deleteVariants(blobPath);
+                    log.debug("마지막 참조가 사라진 저장 단위 삭제: {}", contentHash);
+                } catch (IOException e) {
+                    log.warn("참조가 사라진 저장 단위 파일 삭제 실패: {}", blobPath, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("참조가 사라진 저장 단위 삭제 실패: {}", contentHash, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package flow.domain.file.service;
+
+import flow.common.exception.BusinessException;
+import flow.domain.file.dto.FileResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 파일 목록 키셋 페이지네이션의 커서. 마지막으로 받은 행의 (created_at, id) 를 담는다.
+ * 클라이언트에는 내용을 알 필요 없는 불투명 문자열(base64url)로 내려준다.
+ */
+final class FileCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private FileCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    static FileCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new FileCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw BusinessException.badRequest("유효하지 않은 커서입니다.");
+        }
+    }
+
+    static String encode(FileResponse last) {
+        String raw = last.getCreatedAt() + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    Long getId() {
+        return id;
+    }
+}
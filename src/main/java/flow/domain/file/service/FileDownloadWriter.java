@@ -0,0 +1,311 @@
+package flow.domain.file.service;
+
+import flow.common.exception.BusinessException;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.storage.FileStorages;
+import flow.domain.file.storage.StoredRegion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 파일 다운로드 응답을 직접 기록한다.
+ * Range / If-Range 를 처리해서 206 (단일 구간, multipart/byteranges) 로 응답하고,
+ * 본문은 Tomcat sendfile 또는 FileChannel.transferTo 로 사용자 공간 복사 없이 보낸다.
+ * 저장된 파일은 바뀌지 않으므로 강한 ETag 와 immutable 캐시 헤더를 내려주고, 조건부 요청은 파일을 열지 않고 304 로 끝낸다.
+ * 미리 만들어 둔 압축 변형이 있으면 Accept-Encoding 에 맞춰 그 파일을 같은 방식으로 보낸다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FileDownloadWriter {
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    // 업로드마다 새 저장명(또는 내용 해시)을 쓰므로 같은 ETag 의 내용이 바뀌는 일이 없다
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final FileStorages fileStorages;
+
+    public void write(FileEntity file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 세그먼트 저장소의 파일은 세그먼트 파일 안의 구간이므로 모든 위치에 시작 오프셋을 더해서 보낸다
+        StoredRegion stored = fileStorages.get(file.getStorageBackend()).locate(file.getFilePath());
+        Path original = stored.getPath();
+        long lastModified = file.getCreatedAt() != null
+                ? file.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1L;
+        Set<PrecompressedEncoding> variants = PrecompressedEncoding.parse(file.getPrecompressedEncodings());
+        PrecompressedEncoding encoding = negotiateEncoding(request, variants);
+        String etag = entityTag(file, encoding);
+
+        // If-None-Match, If-Modified-Since (If-Match 포함) 를 평가하고 ETag, Last-Modified 를 설정한다
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (!variants.isEmpty()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        Path path = encoding != null ? encoding.variantOf(original) : original;
+        FileChannel channel = openChannel(path);
+        if (channel == null && encoding != null) {
+            // 변형이 지워졌으면 원본으로 보낸다
+            log.debug("압축 변형이 없어 원본으로 응답: {}", path);
+            encoding = null;
+            path = original;
+            etag = entityTag(file, null);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            channel = openChannel(path);
+        }
+        if (channel == null) {
+            throw BusinessException.notFound("파일을 찾을 수 없거나 읽을 수 없습니다.");
+        }
+
+        try (channel) {
+            long base = encoding != null ? 0 : stored.getOffset();
+            long length = encoding != null ? channel.size() : file.getFileSize();
+            List<long[]> regions = resolveRegions(request, etag, lastModified, length);
+            if (regions == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(file.getOriginalFilename()));
+            if (encoding != null) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+            }
+
+            boolean headOnly = "HEAD".equals(request.getMethod());
+            if (regions.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                response.setContentLengthLong(length);
+                if (!headOnly) {
+                    sendRegion(request, response, channel, path, base, length);
+                }
+            } else if (regions.size() == 1) {
+                long start = regions.get(0)[0];
+                long end = regions.get(0)[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+                response.setContentLengthLong(end - start + 1);
+                if (!headOnly) {
+                    sendRegion(request, response, channel, path, base + start, end - start + 1);
+                }
+            } else {
+                writeMultipartRanges(response, channel, base, regions, length, headOnly);
+            }
+        }
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Accept-Encoding 에서 q 값이 가장 높은 변형을 고른다. 같으면 {@link PrecompressedEncoding} 선언 순서를 따른다.
+     * 고를 변형이 없으면 null 이고 원본을 그대로 보낸다.
+     */
+    private static PrecompressedEncoding negotiateEncoding(HttpServletRequest request,
+                                                           Set<PrecompressedEncoding> variants) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (variants.isEmpty() || acceptEncoding == null) {
+            return null;
+        }
+
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String token = params[0].trim().toLowerCase(Locale.ROOT);
+            double weight = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        weight = 0;
+                    }
+                }
+            }
+            weights.put(token, weight);
+        }
+
+        PrecompressedEncoding selected = null;
+        double selectedWeight = 0;
+        for (PrecompressedEncoding encoding : variants) {
+            double weight = weights.getOrDefault(encoding.getToken(), weights.getOrDefault("*", 0.0));
+            if (weight > selectedWeight) {
+                selected = encoding;
+                selectedWeight = weight;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 요청한 구간을 [start, end] 목록으로 돌려준다.
+     * 빈 목록이면 전체를 보내고, null 이면 만족할 수 없는 Range 이므로 416 으로 응답한다.
+     */
+    private List<long[]> resolveRegions(HttpServletRequest request, String etag, long lastModified, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, etag, lastModified)) {
+            return List.of();
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            List<long[]> regions = new ArrayList<>(ranges.size());
+            long total = 0;
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                total += end - start + 1;
+                regions.add(new long[]{start, end});
+            }
+            // 겹치는 구간을 반복해서 파일보다 큰 응답을 만들게 하는 요청은 받지 않는다
+            return total > length ? null : regions;
+        } catch (IllegalArgumentException e) {
+            log.debug("만족할 수 없는 Range 헤더: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    // If-Range 의 검증자가 현재 파일과 다르면 Range 를 무시하고 전체를 보낸다
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        // If-Range 는 강한 비교만 허용하므로 약한 태그는 항상 불일치다
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+
+        try {
+            long ifRangeTime = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return lastModified >= 0 && lastModified / 1000 == ifRangeTime / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeMultipartRanges(HttpServletResponse response, FileChannel channel, long base,
+                                      List<long[]> regions, long length, boolean headOnly) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        long contentLength = closing.length;
+        for (long[] region : regions) {
+            contentLength += partHeader(boundary, region[0], region[1], length).length + (region[1] - region[0] + 1);
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (headOnly) {
+            return;
+        }
+
+        OutputStream outputStream = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        for (long[] region : regions) {
+            outputStream.write(partHeader(boundary, region[0], region[1], length));
+            transfer(channel, base + region[0], region[1] - region[0] + 1, target);
+        }
+        outputStream.write(closing);
+        outputStream.flush();
+    }
+
+    private void sendRegion(HttpServletRequest request, HttpServletResponse response, FileChannel channel,
+                            Path path, long start, long count) throws IOException {
+        // Tomcat 이 sendfile 을 지원하면 요청 처리가 끝난 뒤 커널이 파일을 소켓으로 직접 보낸다
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, start + count);
+            return;
+        }
+
+        OutputStream outputStream = response.getOutputStream();
+        transfer(channel, start, count, Channels.newChannel(outputStream));
+        outputStream.flush();
+    }
+
+    private void transfer(FileChannel channel, long start, long count, WritableByteChannel target) throws IOException {
+        long position = start;
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    // 내용 주소 저장이면 해시, 아니면 저장명. 헤더에 쓸 수 없는 문자(한글 확장자 등)는 뺀다
+    // 압축 변형은 바이트가 다르므로 인코딩을 붙여 원본과 다른 태그를 쓴다
+    private static String entityTag(FileEntity file, PrecompressedEncoding encoding) {
+        String value = file.getContentHash() != null ? file.getContentHash() : file.getStoredFilename();
+        String tag = value.replaceAll("[^A-Za-z0-9._-]", "");
+        return "\"" + (encoding != null ? tag + "-" + encoding.getToken() : tag) + "\"";
+    }
+
+    private static byte[] partHeader(String boundary, long start, long end, long length) {
+        return ("\r\n--" + boundary + "\r\n"
+                + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n"
+                + HttpHeaders.CONTENT_RANGE + ": " + contentRange(start, end, length) + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    // 파일명 인코딩 (한글 파일명 지원)
+    private static String contentDisposition(String originalFilename) {
+        String encodedFilename = URLEncoder.encode(originalFilename, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        return "attachment; filename=\"" + originalFilename + "\"; filename*=UTF-8''" + encodedFilename;
+    }
+}
@@ -0,0 +1,260 @@
+package flow.domain.file.service;
+
+import flow.domain.file.entity.FileCacheInvalidation;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.repository.FileCacheInvalidationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 다운로드, 단건 조회에서 쓰는 파일 메타데이터를 id 기준으로 메모리에 둔다.
+ * 최근에 쓰지 않은 항목부터 max-size 를 넘는 만큼 내보내고, ttl 이 지난 항목은 다시 읽는다.
+ * 무효화는 file_cache_invalidations 에도 기록하고, 인스턴스마다 이를 주기적으로 읽어 다른 인스턴스의 삭제, 경로 변경을 따라잡는다.
+ */
+@Component
+@Slf4j
+public class FileMetadataCache {
+
+    // 한 번 폴링에서 이보다 많이 쌓였으면 하나씩 지우지 않고 전체를 비운다
+    private static final int MAX_POLLED_INVALIDATIONS = 10000;
+
+    private final FileCacheInvalidationRepository invalidationRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Duration broadcastWindow;
+    private final Duration broadcastRetention;
+
+    // 직전 폴링에서 이미 반영한 무효화 행 id. 폴링은 스케줄러 스레드 하나에서만 한다
+    private Set<Long> appliedInvalidations = Set.of();
+
+    // 조회도 접근 순서를 바꾸므로 읽기 락으로 나눌 수 없다. 락 안에서는 I/O 를 하지 않는다
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 무효화될 때마다 올린다. 읽는 도중 무효화가 끼어들었으면 읽은 값을 넣지 않는다
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public FileMetadataCache(MeterRegistry meterRegistry,
+                             FileCacheInvalidationRepository invalidationRepository,
+                             @Value("${app.upload.metadata-cache.max-size:10000}") int maxSize,
+                             @Value("${app.upload.metadata-cache.ttl:10m}") Duration ttl,
+                             @Value("${app.upload.metadata-cache.broadcast-window:60s}") Duration broadcastWindow,
+                             @Value("${app.upload.metadata-cache.broadcast-retention:10m}") Duration broadcastRetention) {
+        this.invalidationRepository = invalidationRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.broadcastWindow = broadcastWindow;
+        this.broadcastRetention = broadcastRetention;
+
+        this.hits = Counter.builder("file.metadata.cache.lookups")
+                .description("파일 메타데이터 캐시 조회 (miss 는 DB 에서 읽은 경우)")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("file.metadata.cache.lookups")
+                .description("파일 메타데이터 캐시 조회 (miss 는 DB 에서 읽은 경우)")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("file.metadata.cache.evictions")
+                .description("크기 상한이나 ttl 로 내보낸 항목 수")
+                .register(meterRegistry);
+        Gauge.builder("file.metadata.cache.size", this, FileMetadataCache::size)
+                .description("캐시에 있는 파일 메타데이터 수")
+                .register(meterRegistry);
+        Gauge.builder("file.metadata.cache.hit.ratio", this, FileMetadataCache::hitRatio)
+                .description("기동 이후 캐시 적중률")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시에 있으면 그대로 돌려주고, 없으면 loader 로 읽어서 넣는다.
+     * loader 가 던진 예외는 그대로 전달되고 캐시에는 아무것도 남지 않는다.
+     */
+    public FileEntity get(Long id, Function<Long, FileEntity> loader) {
+        long startGeneration;
+        lock.lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.file;
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            startGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        FileEntity file = loader.apply(id);
+
+        lock.lock();
+        try {
+            if (generation == startGeneration) {
+                entries.put(id, new Entry(file, System.nanoTime()));
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return file;
+    }
+
+    // 이 인스턴스에서 바로 지우고 다른 인스턴스에도 알린다
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evict(ids);
+        invalidationRepository.insertAll(ids, LocalDateTime.now());
+    }
+
+    public void invalidateAll() {
+        evictAll();
+        invalidationRepository.insertAll(Collections.singletonList(null), LocalDateTime.now());
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 무효화한다. 커밋 전에 지우면 그 사이 다른 요청이 아직 살아 있는 행을 읽어 다시 넣는다.
+     * 다른 인스턴스에 알리는 기록은 같은 트랜잭션에 넣어서 변경과 함께 커밋된다. 트랜잭션 밖이면 바로 무효화한다.
+     */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ids);
+            return;
+        }
+
+        List<Long> snapshot = List.copyOf(ids);
+        invalidationRepository.insertAll(snapshot, LocalDateTime.now());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(snapshot);
+            }
+        });
+    }
+
+    /**
+     * 최근 broadcast-window 안에 기록된 무효화를 읽어 아직 반영하지 않은 것만 지운다.
+     * id 가 커밋 순서대로 보이지 않으므로 마지막 id 이후가 아니라 시간 창 전체를 매번 다시 읽는다.
+     */
+    @Scheduled(fixedDelayString = "${app.upload.metadata-cache.broadcast-poll-interval-ms:2000}",
+            initialDelayString = "${app.upload.metadata-cache.broadcast-poll-interval-ms:2000}")
+    public void pollInvalidations() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<FileCacheInvalidation> recent = invalidationRepository.findCreatedSince(now.minus(broadcastWindow),
+                    PageRequest.of(0, MAX_POLLED_INVALIDATIONS + 1));
+
+            Set<Long> seen = new HashSet<>();
+            List<Long> fileIds = new ArrayList<>();
+            boolean all = recent.size() > MAX_POLLED_INVALIDATIONS;
+            for (FileCacheInvalidation invalidation : recent) {
+                seen.add(invalidation.getId());
+                if (appliedInvalidations.contains(invalidation.getId())) {
+                    continue;
+                }
+                if (invalidation.getFileId() == null) {
+                    all = true;
+                } else {
+                    fileIds.add(invalidation.getFileId());
+                }
+            }
+            appliedInvalidations = seen;
+
+            if (all) {
+                evictAll();
+            } else if (!fileIds.isEmpty()) {
+                evict(fileIds);
+            }
+            invalidationRepository.deleteCreatedBefore(now.minus(broadcastRetention));
+        } catch (Exception e) {
+            log.warn("파일 메타데이터 캐시 무효화 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        lock.lock();
+        try {
+            generation++;
+            ids.forEach(entries::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    // 접근 순서 맵이므로 앞쪽이 가장 오래 쓰지 않은 항목이다
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final FileEntity file;
+        private final long loadedAt;
+
+        private Entry(FileEntity file, long loadedAt) {
+            this.file = file;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package flow.domain.file.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import flow.common.util.FileNameUtils;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.repository.FileBlobRepository;
+import flow.domain.file.repository.FileRepository;
+import flow.domain.file.storage.FileStorages;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 텍스트 계열 파일의 gzip, zstd 변형을 요청 밖에서 미리 만들어 원본 옆에 둔다.
+ * 다운로드는 Accept-Encoding 에 맞는 변형을 그대로 보내므로 요청마다 압축하는 CPU 비용이 없다.
+ * 여러 인스턴스가 같은 행을 처리해도 결과 파일이 같고 원자적으로 옮기므로 중복 작업만 생긴다.
+ */
+@Component
+@Slf4j
+public class FilePrecompressor {
+
+    // 이만큼도 줄지 않으면 변형을 두지 않는다
+    private static final double MAX_COMPRESSED_RATIO = 0.9;
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+            "txt", "csv", "tsv", "json", "ndjson", "log", "xml", "svg", "html", "htm", "css", "js",
+            "md", "yaml", "yml", "sql");
+
+    private final FileRepository fileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final FileMetadataCache metadataCache;
+    private final FileStorages fileStorages;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long minSize;
+    private final long maxSize;
+    private final int gzipLevel;
+    private final int zstdLevel;
+
+    public FilePrecompressor(FileRepository fileRepository,
+                             FileBlobRepository fileBlobRepository,
+                             FileMetadataCache metadataCache,
+                             FileStorages fileStorages,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.upload.precompress.enabled:false}") boolean enabled,
+                             @Value("${app.upload.precompress.batch-size:20}") int batchSize,
+                             @Value("${app.upload.precompress.min-size:1KB}") DataSize minSize,
+                             @Value("${app.upload.precompress.max-size:64MB}") DataSize maxSize,
+                             @Value("${app.upload.precompress.gzip-level:9}") int gzipLevel,
+                             @Value("${app.upload.precompress.zstd-level:12}") int zstdLevel) {
+        this.fileRepository = fileRepository;
+        this.fileBlobRepository = fileBlobRepository;
+        this.metadataCache = metadataCache;
+        this.fileStorages = fileStorages;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.minSize = minSize.toBytes();
+        this.maxSize = maxSize.toBytes();
+        this.gzipLevel = gzipLevel;
+        this.zstdLevel = zstdLevel;
+    }
+
+    // 한 번에 한 배치만 처리해서 다른 예약 작업이 오래 밀리지 않게 한다
+    @Scheduled(fixedDelayString = "${app.upload.precompress.interval-ms:5000}",
+            initialDelayString = "${app.upload.precompress.interval-ms:5000}")
+    public void precompressPending() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int processed = precompressBatch();
+            if (processed > 0) {
+                log.debug("압축 변형 처리: {}개", processed);
+            }
+        } catch (Exception e) {
+            log.warn("압축 변형 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    public int precompressBatch() {
+        List<FileEntity> pending = fileRepository.findPendingPrecompression(PageRequest.of(0, batchSize));
+        for (FileEntity file : pending) {
+            precompress(file);
+        }
+        return pending.size();
+    }
+
+    private void precompress(FileEntity file) {
+        Path original = Paths.get(file.getFilePath());
+        Set<PrecompressedEncoding> encodings = EnumSet.noneOf(PrecompressedEncoding.class);
+        if (isCompressible(file)) {
+            try {
+                for (PrecompressedEncoding encoding : PrecompressedEncoding.values()) {
+                    if (createVariant(original, file.getFileSize(), encoding)) {
+                        encodings.add(encoding);
+                    }
+                }
+            } catch (IOException e) {
+                // 빈 값으로 표시해서 같은 파일을 매번 다시 시도하지 않는다
+                log.warn("압축 변형 생성 실패: {}", original, e);
+                encodings.clear();
+            }
+        }
+
+        Integer updated = transactionTemplate.execute(status -> fileRepository.updatePrecompressedEncodings(
+                file.getId(), file.getFilePath(), PrecompressedEncoding.join(encodings)));
+        if (updated != null && updated > 0) {
+            metadataCache.invalidate(List.of(file.getId()));
+        } else if (!encodings.isEmpty() && isOrphaned(file)) {
+            // 처리하는 사이 삭제되었거나 옮겨졌으면 방금 만든 변형을 치운다
+            deleteVariantsQuietly(original);
+        }
+    }
+
+    // 해시를 공유하는 다른 파일이 남아 있으면 변형도 계속 쓴다
+    private boolean isOrphaned(FileEntity file) {
+        return file.getContentHash() == null || !fileBlobRepository.existsById(file.getContentHash());
+    }
+
+    private boolean isCompressible(FileEntity file) {
+        if (file.getFileSize() < minSize || file.getFileSize() > maxSize) {
+            return false;
+        }
+        // 변형은 원본 옆에 두므로 파일 하나로 저장된 경우만 만든다
+        if (!fileStorages.isLocal(file.getStorageBackend())) {
+            return false;
+        }
+        // 시그니처로 판별된 형식은 실행 파일, 압축 파일, 이미지 같은 이진 형식이거나 스크립트다
+        String detected = file.getDetectedContentType();
+        if (detected != null) {
+            return detected.startsWith("text/");
+        }
+        return isTextType(file.getContentType())
+                || COMPRESSIBLE_EXTENSIONS.contains(FileNameUtils.getFileExtension(file.getOriginalFilename()));
+    }
+
+    private static boolean isTextType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.startsWith("application/xml")
+                || type.startsWith("application/javascript")
+                || type.startsWith("application/x-ndjson")
+                || type.startsWith("image/svg+xml")
+                || type.contains("+json")
+                || type.contains("+xml");
+    }
+
+    // 변형을 두었으면 true. 내용 주소 저장 파일은 같은 해시의 다른 행이 먼저 만들어 둔 변형을 그대로 쓴다
+    private boolean createVariant(Path original, long originalSize, PrecompressedEncoding encoding) throws IOException {
+        Path variant = encoding.variantOf(original);
+        if (Files.exists(variant)) {
+            return true;
+        }
+
+        Path tempFile = Files.createTempFile(original.getParent(), original.getFileName().toString(), ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(original);
+                 OutputStream out = compressingStream(encoding, Files.newOutputStream(tempFile))) {
+                in.transferTo(out);
+            }
+            if (Files.size(tempFile) > originalSize * MAX_COMPRESSED_RATIO) {
+                return false;
+            }
+            Files.move(tempFile, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private OutputStream compressingStream(PrecompressedEncoding encoding, OutputStream out) throws IOException {
+        return switch (encoding) {
+            case ZSTD -> new ZstdOutputStream(out, zstdLevel);
+            case GZIP -> new GZIPOutputStream(out, 65536) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            };
+        };
+    }
+
+    private static void deleteVariantsQuietly(Path original) {
+        try {
+            PrecompressedEncoding.deleteVariants(original);
+        } catch (IOException e) {
+            log.warn("압축 변형 삭제 실패: {}", original, e);
+        }
+    }
+}
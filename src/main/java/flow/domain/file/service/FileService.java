@@ -1,22 +1,45 @@
 package flow.domain.file.service;
 
+import flow.domain.file.dto.FileBatchUploadResponse;
+import flow.domain.file.dto.FileBulkDeleteRequest;
+import flow.domain.file.dto.FileBulkDeleteResponse;
+import flow.domain.file.dto.FilePageResponse;
+import flow.domain.file.dto.StorageMigrationResponse;
 import flow.domain.file.entity.FileEntity;
-import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 public interface FileService {
 
     FileEntity uploadFile(MultipartFile file);
 
+    FileBatchUploadResponse uploadFiles(List<MultipartFile> files);
+
+    FileEntity uploadFileStream(String originalFilename, String contentType, long contentLength, InputStream inputStream);
+
+    // 청크 업로드를 시작하기 전에 파일명과 확장자 정책만 먼저 검사한다
+    void checkUploadAllowed(String originalFilename);
+
+    FileEntity storeAssembledFile(String originalFilename, String contentType, Path assembledFile);
+
     List<FileEntity> getAllFiles();
 
-    FileEntity getFileById(Long id);
+    FilePageResponse getFilePage(String cursor, int size, boolean withTotal);
 
-    Resource downloadFile(Long id);
+    long exportFiles(OutputStream outputStream) throws IOException;
+
+    FileEntity getFileById(Long id);
 
     void deleteFile(Long id);
 
+    FileBulkDeleteResponse deleteFiles(FileBulkDeleteRequest request);
+
     void initializeUploadDirectory();
+
+    StorageMigrationResponse migrateStorageLayout(int batchSize);
 }
\ No newline at end of file
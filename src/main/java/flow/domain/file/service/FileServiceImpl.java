@@ -1,27 +1,65 @@
 package flow.domain.file.service;
 
 import flow.common.exception.BusinessException;
+import flow.common.util.FileNameUtils;
+import flow.domain.extension.policy.ExtensionBlockType;
+import flow.domain.extension.policy.ExtensionVerdict;
 import flow.domain.extension.service.ExtensionService;
+import flow.domain.file.dto.FileBatchUploadResponse;
+import flow.domain.file.dto.FileBulkDeleteRequest;
+import flow.domain.file.dto.FileBulkDeleteResponse;
+import flow.domain.file.dto.FilePageResponse;
+import flow.domain.file.dto.FileResponse;
+import flow.domain.file.dto.StorageMigrationResponse;
 import flow.domain.file.entity.FileEntity;
 import flow.domain.file.repository.FileRepository;
+import flow.domain.file.sniff.ContentSniffer;
+import flow.domain.file.sniff.SniffedType;
+import flow.domain.file.storage.FileStorage;
+import flow.domain.file.storage.FileStorages;
+import flow.domain.file.storage.LocalFileStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,65 +69,491 @@ public class FileServiceImpl implements FileService {
 
     private final FileRepository fileRepository;
     private final ExtensionService extensionService;
+    private final FileUploadMetrics uploadMetrics;
+    private final UploadBufferPool bufferPool;
+    private final FileBlobStore fileBlobStore;
+    private final UploadDirectoryLayout directoryLayout;
+    private final UploadLayoutMigrator layoutMigrator;
+    private final ObjectMapper objectMapper;
+    private final UploadTaskExecutor uploadTaskExecutor;
+    private final FileMetadataCache metadataCache;
+    private final FileStorages fileStorages;
 
     @Value("${app.upload.path:/flow/data}")
     private String uploadPath;
 
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    // true 면 같은 내용의 파일을 SHA-256 해시 기준으로 한 번만 저장한다
+    @Value("${app.upload.content-addressed:false}")
+    private boolean contentAddressed;
 
+    // 요청 하나로 올리는 업로드의 상한. 더 큰 파일은 청크 업로드(/api/files/uploads)를 쓴다
+    @Value("${app.upload.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final int MAX_BULK_DELETE_SIZE = 1000;
+    private static final int MAX_BATCH_UPLOAD_FILES = 100;
+    private static final String BLOB_DIRECTORY = "blobs";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // 파일 쓰기 동안 DB 커넥션을 잡고 있지 않도록 트랜잭션 밖에서 처리하고, 메타데이터 저장만 짧은 트랜잭션으로 한다
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FileEntity uploadFile(MultipartFile file) {
+        return recordUpload(() -> saveWrittenFile(writeMultipartFile(file)));
+    }
+
+    /**
+     * 여러 파일을 한 요청으로 올린다. 파일별 검사와 디스크 기록은 제한된 병렬도로 동시에 처리하고,
+     * 메타데이터는 성공한 파일만 모아 JDBC 배치 INSERT 한 번으로 저장한다.
+     * 일부 파일이 실패해도 나머지는 그대로 저장되고, 결과는 요청 순서대로 파일마다 돌려준다.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileBatchUploadResponse uploadFiles(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw BusinessException.badRequest("업로드할 파일이 없습니다.");
+        }
+        if (files.size() > MAX_BATCH_UPLOAD_FILES) {
+            throw BusinessException.badRequest("파일은 한 번에 최대 " + MAX_BATCH_UPLOAD_FILES + "개까지 업로드할 수 있습니다.");
+        }
+
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<WrittenFile>> writes = files.stream()
+                .map(file -> uploadTaskExecutor.submit(() -> writeMultipartFile(file)))
+                .toList();
+
+        FileBatchUploadResponse.FileUploadResult[] results = new FileBatchUploadResponse.FileUploadResult[files.size()];
+        List<Integer> batchIndexes = new ArrayList<>();
+        List<WrittenFile> batchFiles = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            String originalFilename = files.get(i).getOriginalFilename();
+            try {
+                WrittenFile writtenFile = writes.get(i).join();
+                if (writtenFile.contentHash != null) {
+                    // 내용 주소 저장은 해시별 참조 수를 올려야 하므로 파일마다 저장한다
+                    results[i] = uploadSucceeded(saveWrittenFile(writtenFile), startNanos);
+                } else {
+                    batchIndexes.add(i);
+                    batchFiles.add(writtenFile);
+                }
+            } catch (CompletionException e) {
+                results[i] = uploadFailed(originalFilename, e.getCause(), startNanos);
+            } catch (RuntimeException e) {
+                // DB 오류도 이 파일만 실패로 남긴다. 빠져나가면 나머지 파일이 디스크에 남은 채 요청 전체가 실패한다
+                results[i] = uploadFailed(originalFilename, e, startNanos);
+            }
+        }
+
+        if (!batchFiles.isEmpty()) {
+            List<FileEntity> entities = batchFiles.stream()
+                    .map(writtenFile -> writtenFile.fileBuilder.build())
+                    .toList();
+            long dbStartNanos = System.nanoTime();
+            if (insertBatch(entities)) {
+                Map<String, FileEntity> saved = findSaved(entities);
+                uploadMetrics.recordStage(FileUploadMetrics.STAGE_DB, dbStartNanos);
+
+                for (int k = 0; k < batchIndexes.size(); k++) {
+                    FileEntity entity = saved.get(entities.get(k).getStoredFilename());
+                    results[batchIndexes.get(k)] = entity != null
+                            ? uploadSucceeded(entity, startNanos)
+                            : uploadSavedWithoutLookup(entities.get(k), startNanos);
+                }
+            } else {
+                // 배치 INSERT 가 롤백되어 가리키는 행이 없으므로 기록한 바이트도 지운다
+                batchFiles.forEach(this::discard);
+                BusinessException failure = BusinessException.internalServerError("파일 저장에 실패했습니다.");
+                for (Integer index : batchIndexes) {
+                    results[index] = uploadFailed(files.get(index).getOriginalFilename(), failure, startNanos);
+                }
+            }
+        }
+
+        List<FileBatchUploadResponse.FileUploadResult> resultList = List.of(results);
+        return FileBatchUploadResponse.builder()
+                .requested(files.size())
+                .uploaded((int) resultList.stream().filter(FileBatchUploadResponse.FileUploadResult::isSuccess).count())
+                .results(resultList)
+                .build();
+    }
+
+    private WrittenFile writeMultipartFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw BusinessException.badRequest("파일이 비어있습니다.");
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw BusinessException.badRequest("파일 크기는 10MB를 초과할 수 없습니다.");
+        if (file.getSize() > maxFileSize.toBytes()) {
+            throw fileTooLarge();
+        }
+
+        String originalFilename = validateFilename(file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream()) {
+            return writeStream(originalFilename, file.getContentType(), inputStream);
+        } catch (IOException e) {
+            log.error("업로드 파일 읽기 실패: {}", e.getMessage(), e);
+            throw BusinessException.internalServerError("파일 저장에 실패했습니다.");
+        }
+    }
+
+    private boolean insertBatch(List<FileEntity> entities) {
+        try {
+            fileRepository.insertAll(entities);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("파일 메타데이터 일괄 저장 실패: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // 이미 커밋된 행을 다시 읽는다. 여기서 실패해도 바이트는 커밋된 행이 가리키므로 지우지 않는다
+    private Map<String, FileEntity> findSaved(List<FileEntity> entities) {
+        try {
+            return fileRepository.findByStoredFilenameIn(entities.stream()
+                            .map(FileEntity::getStoredFilename)
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(FileEntity::getStoredFilename, Function.identity(), (a, b) -> a));
+        } catch (RuntimeException e) {
+            log.error("저장한 파일 메타데이터 조회 실패: {}", e.getMessage(), e);
+            return Map.of();
         }
+    }
+
+    private FileBatchUploadResponse.FileUploadResult uploadSucceeded(FileEntity saved, long startNanos) {
+        uploadMetrics.recordUpload(FileUploadMetrics.OUTCOME_SUCCESS, startNanos);
+        return FileBatchUploadResponse.FileUploadResult.builder()
+                .originalFilename(saved.getOriginalFilename())
+                .success(true)
+                .file(FileResponse.from(saved))
+                .build();
+    }
 
-        String originalFilename = file.getOriginalFilename();
+    // 저장은 되었지만 id 를 알 수 없다. 실패로 돌려주면 클라이언트가 다시 올려 같은 파일이 두 번 남는다
+    private FileBatchUploadResponse.FileUploadResult uploadSavedWithoutLookup(FileEntity entity, long startNanos) {
+        uploadMetrics.recordUpload(FileUploadMetrics.OUTCOME_SUCCESS, startNanos);
+        return FileBatchUploadResponse.FileUploadResult.builder()
+                .originalFilename(entity.getOriginalFilename())
+                .success(true)
+                .file(FileResponse.from(entity))
+                .message("저장되었지만 파일 정보를 다시 읽지 못했습니다. 파일 목록에서 확인하세요.")
+                .build();
+    }
+
+    private FileBatchUploadResponse.FileUploadResult uploadFailed(String originalFilename, Throwable cause,
+                                                                  long startNanos) {
+        BusinessException failure = cause instanceof BusinessException businessException
+                ? businessException
+                : BusinessException.internalServerError("파일 저장에 실패했습니다.");
+        if (!(cause instanceof BusinessException)) {
+            log.error("파일 업로드 실패: {}", originalFilename, cause);
+        }
+        uploadMetrics.recordUpload(failure.getStatus().is4xxClientError()
+                ? FileUploadMetrics.OUTCOME_REJECTED : FileUploadMetrics.OUTCOME_ERROR, startNanos);
+        return FileBatchUploadResponse.FileUploadResult.builder()
+                .originalFilename(originalFilename)
+                .success(false)
+                .message(failure.getMessage())
+                .errorCode(failure.getErrorCode())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileEntity uploadFileStream(String originalFilename, String contentType, long contentLength,
+                                       InputStream inputStream) {
+        return recordUpload(() -> {
+            if (contentLength == 0) {
+                throw BusinessException.badRequest("파일이 비어있습니다.");
+            }
+
+            // 길이를 알 수 있으면 본문을 읽기 전에 거절한다. 모르면 기록하면서 확인한다
+            if (contentLength > maxFileSize.toBytes()) {
+                throw fileTooLarge();
+            }
+
+            return storeStream(validateFilename(originalFilename), contentType, inputStream);
+        });
+    }
+
+    @Override
+    public void checkUploadAllowed(String originalFilename) {
+        validateFilename(originalFilename);
+    }
+
+    /**
+     * 청크 업로드로 이미 디스크에 조립된 파일을 등록한다.
+     * 형식 판별에는 앞부분만 읽고 파일은 옮기기만 한다. 전체를 다시 읽는 것은 내용 주소 저장 모드의 해시 계산뿐이다.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileEntity storeAssembledFile(String originalFilename, String contentType, Path assembledFile) {
+        return recordUpload(() -> {
+            String extension = FileNameUtils.getFileExtension(validateFilename(originalFilename));
+            String storedFilename = generateUniqueFilename(originalFilename);
+
+            byte[] buffer = bufferPool.acquire();
+            try (InputStream inputStream = Files.newInputStream(assembledFile)) {
+                long policyStartNanos = System.nanoTime();
+                int filled = fill(inputStream, buffer, ContentSniffer.HEADER_SIZE);
+                SniffedType sniffedType = ContentSniffer.sniff(buffer, Math.min(filled, ContentSniffer.HEADER_SIZE));
+                checkSniffedType(sniffedType, extension);
+                uploadMetrics.recordStage(FileUploadMetrics.STAGE_POLICY, policyStartNanos);
+
+                long fileSize = Files.size(assembledFile);
+                uploadMetrics.recordBytes(fileSize);
+                FileEntity.FileEntityBuilder fileBuilder = FileEntity.builder()
+                        .originalFilename(originalFilename)
+                        .storedFilename(storedFilename)
+                        .fileSize(fileSize)
+                        .contentType(contentType)
+                        .detectedContentType(sniffedType != null ? sniffedType.getMimeType() : null)
+                        .storageBackend(LocalFileStorage.NAME);
+
+                if (contentAddressed) {
+                    MessageDigest digest = newContentDigest();
+                    digest.update(buffer, 0, filled);
+                    int read;
+                    while ((read = inputStream.read(buffer)) >= 0) {
+                        digest.update(buffer, 0, read);
+                    }
+                    long dbStartNanos = System.nanoTime();
+                    FileEntity saved = storeBlob(fileBuilder, HexFormat.of().formatHex(digest.digest()), fileSize,
+                            assembledFile);
+                    uploadMetrics.recordStage(FileUploadMetrics.STAGE_DB, dbStartNanos);
+                    return saved;
+                }
+
+                Path filePath = directoryLayout.resolve(Paths.get(uploadPath), storedFilename);
+                directoryLayout.ensureDirectory(filePath.getParent());
+                Files.move(assembledFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+
+                long dbStartNanos = System.nanoTime();
+                try {
+                    FileEntity saved = fileRepository.save(fileBuilder.filePath(filePath.toString()).build());
+                    uploadMetrics.recordStage(FileUploadMetrics.STAGE_DB, dbStartNanos);
+                    return saved;
+                } catch (RuntimeException e) {
+                    // 완료 요청을 다시 보낼 수 있도록 조립된 파일을 제자리로 돌려 둔다
+                    Files.move(filePath, assembledFile, StandardCopyOption.ATOMIC_MOVE);
+                    throw e;
+                }
+
+            } catch (IOException e) {
+                log.error("조립된 파일 등록 실패: {}", e.getMessage(), e);
+                throw BusinessException.internalServerError("파일 저장에 실패했습니다.");
+            } finally {
+                bufferPool.release(buffer);
+            }
+        });
+    }
+
+    private BusinessException fileTooLarge() {
+        return BusinessException.badRequest(
+                String.format("파일 크기는 %dMB를 초과할 수 없습니다.", maxFileSize.toMegabytes()));
+    }
+
+    private FileEntity recordUpload(Supplier<FileEntity> upload) {
+        long startNanos = System.nanoTime();
+        try {
+            FileEntity saved = upload.get();
+            uploadMetrics.recordUpload(FileUploadMetrics.OUTCOME_SUCCESS, startNanos);
+            return saved;
+        } catch (BusinessException e) {
+            uploadMetrics.recordUpload(e.getStatus().is4xxClientError()
+                    ? FileUploadMetrics.OUTCOME_REJECTED : FileUploadMetrics.OUTCOME_ERROR, startNanos);
+            throw e;
+        }
+    }
+
+    // 파일명과 확장자 정책을 검사하고 원본 파일명을 돌려준다
+    private String validateFilename(String originalFilename) {
         if (originalFilename == null || originalFilename.trim().isEmpty()) {
             throw BusinessException.badRequest("유효하지 않은 파일명입니다.");
         }
 
-        // 확장자 추출 및 차단 여부 확인
-        String extension = getFileExtension(originalFilename);
-        if (extension.isEmpty()) {
+        // 마지막 확장자뿐 아니라 tar.gz, invoice.exe.pdf 같은 여러 마디 이름도 함께 검사한다
+        ExtensionVerdict verdict = extensionService.evaluateFilename(originalFilename);
+        if (verdict.getBlockType() == ExtensionBlockType.MISSING) {
             throw BusinessException.badRequest("확장자가 없는 파일은 업로드할 수 없습니다.");
         }
-
-        if (extensionService.isExtensionBlocked(extension)) {
-            throw BusinessException.badRequest("차단된 확장자입니다: " + extension);
+        if (verdict.isBlocked()) {
+            throw BusinessException.badRequest("차단된 확장자입니다: " + verdict.getExtension());
         }
+        return originalFilename;
+    }
 
-        // 파일 저장
+    private FileEntity storeStream(String originalFilename, String contentType, InputStream inputStream) {
+        return saveWrittenFile(writeStream(originalFilename, contentType, inputStream));
+    }
+
+    /**
+     * 스트림을 풀에서 빌린 버퍼 하나로 최종 위치에 바로 기록한다.
+     * 첫 버퍼를 채운 뒤 앞부분으로 형식을 판별하고, 통과하면 그 버퍼 내용부터 그대로 써서 스트림을 한 번만 읽는다.
+     * 스트림이 첫 버퍼 안에서 끝난 작은 파일은 저장소({@link FileStorages#forSmallFile})에 한 번에 쓴다.
+     * 내용 주소 저장 모드에서는 기록하면서 해시를 계산하고, 임시 파일로 받은 뒤 저장 시 해시 경로로 옮긴다.
+     */
+    private WrittenFile writeStream(String originalFilename, String contentType, InputStream inputStream) {
+        String extension = FileNameUtils.getFileExtension(originalFilename);
         String storedFilename = generateUniqueFilename(originalFilename);
         Path uploadDir = Paths.get(uploadPath);
-        Path filePath = uploadDir.resolve(storedFilename);
+        Path filePath = contentAddressed
+                ? uploadDir.resolve(BLOB_DIRECTORY).resolve(UUID.randomUUID() + TEMP_SUFFIX)
+                : directoryLayout.resolve(uploadDir, storedFilename);
+        MessageDigest digest = contentAddressed ? newContentDigest() : null;
 
+        byte[] buffer = bufferPool.acquire();
+        boolean written = false;
         try {
-            // 업로드 디렉토리가 없으면 생성
-            if (!Files.exists(uploadDir)) {
-                Files.createDirectories(uploadDir);
+            long policyStartNanos = System.nanoTime();
+            int filled = fill(inputStream, buffer, buffer.length);
+            if (filled == 0) {
+                throw BusinessException.badRequest("파일이 비어있습니다.");
             }
 
-            // 파일 저장
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            SniffedType sniffedType = ContentSniffer.sniff(buffer, Math.min(filled, ContentSniffer.HEADER_SIZE));
+            checkSniffedType(sniffedType, extension);
+            uploadMetrics.recordStage(FileUploadMetrics.STAGE_POLICY, policyStartNanos);
 
-            // 데이터베이스에 파일 정보 저장
-            FileEntity fileEntity = FileEntity.builder()
+            FileEntity.FileEntityBuilder fileBuilder = FileEntity.builder()
                     .originalFilename(originalFilename)
                     .storedFilename(storedFilename)
-                    .fileSize(file.getSize())
-                    .contentType(file.getContentType())
+                    .contentType(contentType)
+                    .detectedContentType(sniffedType != null ? sniffedType.getMimeType() : null);
+
+            long storageStartNanos = System.nanoTime();
+            if (digest == null && filled < buffer.length) {
+                FileStorage storage = fileStorages.forSmallFile(filled);
+                String location = storage.write(storedFilename, buffer, 0, filled);
+                uploadMetrics.recordStage(FileUploadMetrics.STAGE_STORAGE, storageStartNanos);
+                uploadMetrics.recordBytes(filled);
+                written = true;
+                return new WrittenFile(fileBuilder.fileSize((long) filled).filePath(location)
+                        .storageBackend(storage.getName()), storage, location, filled, null);
+            }
+
+            // 업로드 디렉토리가 없으면 생성
+            directoryLayout.ensureDirectory(filePath.getParent());
+
+            // 파일 저장
+            long fileSize;
+            try (OutputStream outputStream = Files.newOutputStream(filePath, StandardOpenOption.CREATE_NEW)) {
+                fileSize = transfer(inputStream, outputStream, buffer, filled, digest);
+            }
+            uploadMetrics.recordStage(FileUploadMetrics.STAGE_STORAGE, storageStartNanos);
+            uploadMetrics.recordBytes(fileSize);
+
+            fileBuilder.fileSize(fileSize)
                     .filePath(filePath.toString())
-                    .build();
+                    .storageBackend(LocalFileStorage.NAME);
+            written = true;
+            return new WrittenFile(fileBuilder, fileStorages.local(), filePath.toString(), fileSize,
+                    digest != null ? HexFormat.of().formatHex(digest.digest()) : null);
 
-            return fileRepository.save(fileEntity);
+        } catch (IOException e) {
+            log.error("파일 저장 실패: {}", e.getMessage(), e);
+            throw BusinessException.internalServerError("파일 저장에 실패했습니다.");
+        } finally {
+            bufferPool.release(buffer);
+            if (!written) {
+                deleteQuietly(filePath);
+            }
+        }
+    }
 
+    // 데이터베이스에 파일 정보 저장. 실패하면 기록한 파일도 지운다
+    private FileEntity saveWrittenFile(WrittenFile writtenFile) {
+        boolean saved = false;
+        try {
+            long dbStartNanos = System.nanoTime();
+            FileEntity fileEntity = writtenFile.contentHash != null
+                    ? storeBlob(writtenFile.fileBuilder, writtenFile.contentHash, writtenFile.fileSize,
+                    Paths.get(writtenFile.location))
+                    : fileRepository.save(writtenFile.fileBuilder.build());
+            uploadMetrics.recordStage(FileUploadMetrics.STAGE_DB, dbStartNanos);
+            saved = true;
+            return fileEntity;
         } catch (IOException e) {
             log.error("파일 저장 실패: {}", e.getMessage(), e);
             throw BusinessException.internalServerError("파일 저장에 실패했습니다.");
+        } finally {
+            // 내용 주소 저장 모드의 임시 파일은 옮겨졌거나 중복이라 필요 없다
+            if (!saved || writtenFile.contentHash != null) {
+                discard(writtenFile);
+            }
+        }
+    }
+
+    private FileEntity storeBlob(FileEntity.FileEntityBuilder fileBuilder, String contentHash, long fileSize,
+                                 Path tempFile) throws IOException {
+        Path blobPath = directoryLayout.resolve(Paths.get(uploadPath).resolve(BLOB_DIRECTORY), contentHash);
+        directoryLayout.ensureDirectory(blobPath.getParent());
+        try {
+            return fileBlobStore.store(fileBuilder, contentHash, fileSize, tempFile, blobPath);
+        } catch (DataIntegrityViolationException e) {
+            // 같은 내용을 다른 요청이 먼저 등록했다. 이번에는 참조 수만 올라간다
+            log.debug("동시에 등록된 저장 단위 재사용: {}", contentHash);
+            return fileBlobStore.store(fileBuilder, contentHash, fileSize, tempFile, blobPath);
+        }
+    }
+
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 최소 minLength 바이트가 모이거나 스트림이 끝날 때까지 버퍼를 채운다
+    private int fill(InputStream inputStream, byte[] buffer, int minLength) throws IOException {
+        int filled = 0;
+        while (filled < minLength) {
+            int read = inputStream.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
+
+    private long transfer(InputStream inputStream, OutputStream outputStream, byte[] buffer, int filled,
+                          MessageDigest digest) throws IOException {
+        long total = filled;
+        outputStream.write(buffer, 0, filled);
+        if (digest != null) {
+            digest.update(buffer, 0, filled);
+        }
+
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            total += read;
+            if (total > maxFileSize.toBytes()) {
+                throw fileTooLarge();
+            }
+            outputStream.write(buffer, 0, read);
+            if (digest != null) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    private void discard(WrittenFile writtenFile) {
+        try {
+            writtenFile.storage.delete(writtenFile.location);
+        } catch (IOException | RuntimeException e) {
+            log.warn("저장하다 만 파일 삭제 실패: {}", writtenFile.location, e);
+        }
+    }
+
+    private void deleteQuietly(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            log.warn("저장하다 만 파일 삭제 실패: {}", filePath, e);
         }
     }
 
@@ -99,51 +563,119 @@ public class FileServiceImpl implements FileService {
         return fileRepository.findAllOrderByCreatedAtDesc();
     }
 
+    // OFFSET 없이 마지막 행 다음부터 인덱스를 따라 읽으므로 몇 번째 페이지든 조회 비용이 같다
     @Override
     @Transactional(readOnly = true)
-    public FileEntity getFileById(Long id) {
-        return fileRepository.findById(id)
-                .orElseThrow(() -> BusinessException.notFound("파일을 찾을 수 없습니다."));
+    public FilePageResponse getFilePage(String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw BusinessException.badRequest("페이지 크기는 1 이상 " + MAX_PAGE_SIZE + " 이하여야 합니다.");
+        }
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<FileResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = fileRepository.findFirstPage(limit);
+        } else {
+            FileCursor fileCursor = FileCursor.decode(cursor);
+            rows = fileRepository.findPageBefore(fileCursor.getCreatedAt(), fileCursor.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<FileResponse> items = hasNext ? rows.subList(0, size) : rows;
+        return FilePageResponse.builder()
+                .items(items)
+                .nextCursor(hasNext ? FileCursor.encode(items.get(items.size() - 1)) : null)
+                .hasNext(hasNext)
+                .totalCount(withTotal ? fileRepository.countByDeletedAtIsNull() : null)
+                .build();
     }
 
+    /**
+     * 전체 파일 목록을 한 줄에 하나씩 JSON 으로 기록한다 (NDJSON).
+     * DB 커서에서 읽는 대로 바로 쓰므로 행 수와 상관없이 메모리 사용량이 일정하다.
+     */
     @Override
     @Transactional(readOnly = true)
-    public Resource downloadFile(Long id) {
-        FileEntity fileEntity = getFileById(id);
-
-        try {
-            Path filePath = Paths.get(fileEntity.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw BusinessException.notFound("파일을 찾을 수 없거나 읽을 수 없습니다.");
+    public long exportFiles(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(FileResponse.class);
+        long count = 0;
+        try (Stream<FileResponse> rows = fileRepository.streamAll()) {
+            Iterator<FileResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(writer.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+                // 첫 행은 바로 내보내고, 이후로는 일정 행마다 내보낸다
+                if (++count == 1 || count % EXPORT_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
             }
-        } catch (MalformedURLException e) {
-            log.error("파일 다운로드 실패: {}", e.getMessage(), e);
-            throw BusinessException.internalServerError("파일 다운로드에 실패했습니다.");
         }
+        outputStream.flush();
+        log.info("파일 목록 내보내기 완료: {}건", count);
+        return count;
     }
 
+    // 캐시에 있으면 트랜잭션도 커넥션도 잡지 않고 돌려준다. 없을 때만 PK 로 한 번 읽는다
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileEntity getFileById(Long id) {
+        return metadataCache.get(id, key -> fileRepository.findActiveById(key)
+                .orElseThrow(() -> BusinessException.notFound("파일을 찾을 수 없습니다.")));
+    }
+
+    // 삭제 표시만 하고 돌아간다. 파일 시스템 작업은 FileSweeper 가 요청 밖에서 처리한다
     @Override
     public void deleteFile(Long id) {
-        FileEntity fileEntity = getFileById(id);
+        if (fileRepository.markDeleted(id, LocalDateTime.now()) == 0) {
+            throw BusinessException.notFound("파일을 찾을 수 없습니다.");
+        }
+        metadataCache.invalidateAfterCommit(List.of(id));
+    }
 
-        try {
-            // 실제 파일 삭제
-            Path filePath = Paths.get(fileEntity.getFilePath());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-            }
+    /**
+     * 여러 파일을 한 번에 삭제 표시한다. 대상 조회 한 번, 삭제 표시 UPDATE 한 번으로 끝나고,
+     * 실제 파일은 스위퍼가 병렬로 지운다.
+     */
+    @Override
+    public FileBulkDeleteResponse deleteFiles(FileBulkDeleteRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getCreatedBefore() != null)) {
+            throw BusinessException.badRequest("ids 와 createdBefore 중 하나만 지정해주세요.");
+        }
 
-            // 데이터베이스에서 파일 정보 삭제
-            fileRepository.delete(fileEntity);
+        Collection<Long> requestedIds;
+        List<Long> activeIds;
+        boolean hasMore = false;
+        if (byIds) {
+            requestedIds = new LinkedHashSet<>(request.getIds());
+            activeIds = fileRepository.findActiveIds(requestedIds);
+        } else {
+            activeIds = fileRepository.findActiveIdsCreatedBefore(request.getCreatedBefore(),
+                    PageRequest.of(0, MAX_BULK_DELETE_SIZE + 1));
+            hasMore = activeIds.size() > MAX_BULK_DELETE_SIZE;
+            if (hasMore) {
+                activeIds = activeIds.subList(0, MAX_BULK_DELETE_SIZE);
+            }
+            requestedIds = activeIds;
+        }
 
-        } catch (IOException e) {
-            log.error("파일 삭제 실패: {}", e.getMessage(), e);
-            throw BusinessException.internalServerError("파일 삭제에 실패했습니다.");
+        if (!activeIds.isEmpty()) {
+            fileRepository.markDeletedByIds(activeIds, LocalDateTime.now());
+            metadataCache.invalidateAfterCommit(activeIds);
         }
+
+        Set<Long> deletedIds = new HashSet<>(activeIds);
+        List<FileBulkDeleteResponse.FileDeleteResult> results = requestedIds.stream()
+                .map(id -> new FileBulkDeleteResponse.FileDeleteResult(id, deletedIds.contains(id)
+                        ? FileBulkDeleteResponse.FileDeleteResult.DELETED
+                        : FileBulkDeleteResponse.FileDeleteResult.NOT_FOUND))
+                .toList();
+        return FileBulkDeleteResponse.builder()
+                .requested(requestedIds.size())
+                .deleted(deletedIds.size())
+                .results(results)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
@@ -160,11 +692,28 @@ public class FileServiceImpl implements FileService {
         }
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
+    // 배치마다 짧은 트랜잭션으로 경로를 갱신하므로 전체를 하나의 트랜잭션으로 묶지 않는다
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StorageMigrationResponse migrateStorageLayout(int batchSize) {
+        if (batchSize < 1 || batchSize > 1000) {
+            throw BusinessException.badRequest("배치 크기는 1 이상 1000 이하여야 합니다.");
+        }
+        return layoutMigrator.migrate(batchSize);
+    }
+
+    // 내용으로 판별한 형식을 기존 확장자 정책에 대조한다. 이름을 바꾼 실행 파일을 여기서 걸러낸다
+    private void checkSniffedType(SniffedType sniffedType, String declaredExtension) {
+        if (sniffedType == null || sniffedType.isDeclaredBy(declaredExtension)) {
+            return;
+        }
+
+        for (String extension : sniffedType.getPolicyExtensions()) {
+            if (extensionService.evaluateExtension(extension).isBlocked()) {
+                log.warn("파일 내용이 차단된 형식과 일치: 선언 확장자 {}, 판별 형식 {}", declaredExtension, sniffedType);
+                throw BusinessException.badRequest("파일 내용이 차단된 확장자 형식입니다: " + extension);
+            }
         }
-        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
     }
 
     private String generateUniqueFilename(String originalFilename) {
@@ -184,4 +733,24 @@ public class FileServiceImpl implements FileService {
 
         return uuid + "_" + cleanFilename + extension;
     }
-}
\ No newline at end of file
+
+    // 저장소 기록까지 끝나고 메타데이터 저장만 남은 업로드
+    private static final class WrittenFile {
+        private final FileEntity.FileEntityBuilder fileBuilder;
+        private final FileStorage storage;
+        // 저장소 안의 위치. 내용 주소 저장 모드에서는 임시 파일 경로다
+        private final String location;
+        private final long fileSize;
+        // 내용 주소 저장 모드일 때만 값이 있다
+        private final String contentHash;
+
+        private WrittenFile(FileEntity.FileEntityBuilder fileBuilder, FileStorage storage, String location,
+                            long fileSize, String contentHash) {
+            this.fileBuilder = fileBuilder;
+            this.storage = storage;
+            this.location = location;
+            this.fileSize = fileSize;
+            this.contentHash = contentHash;
+        }
+    }
+}
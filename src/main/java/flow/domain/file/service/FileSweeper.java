@@ -0,0 +1,135 @@
+package flow.domain.file.service;
+
+import flow.common.util.ThreadFactories;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.repository.FileRepository;
+import flow.domain.file.storage.FileStorages;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 삭제 표시된 파일을 배치로 정리한다.
+ * 배치마다 행을 FOR UPDATE SKIP LOCKED 로 잡고, 실제 파일을 제한된 병렬도로 지운 뒤 행을 한 번에 지운다.
+ * 중간에 프로세스가 죽으면 트랜잭션이 롤백되어 행이 그대로 남고, 파일 삭제는 여러 번 해도 같으므로 다음 실행에서 이어서 처리한다.
+ */
+@Component
+@Slf4j
+public class FileSweeper {
+
+    private final FileRepository fileRepository;
+    private final FileBlobStore fileBlobStore;
+    private final FileMetadataCache metadataCache;
+    private final FileStorages fileStorages;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService unlinkExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public FileSweeper(FileRepository fileRepository,
+                       FileBlobStore fileBlobStore,
+                       FileMetadataCache metadataCache,
+                       FileStorages fileStorages,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.upload.sweeper.batch-size:200}") int batchSize,
+                       @Value("${app.upload.sweeper.parallelism:4}") int parallelism,
+                       @Value("${app.upload.sweeper.max-attempts:10}") int maxAttempts,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.fileRepository = fileRepository;
+        this.fileBlobStore = fileBlobStore;
+        this.metadataCache = metadataCache;
+        this.fileStorages = fileStorages;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unlinkExecutor = Executors.newFixedThreadPool(parallelism,
+                ThreadFactories.named("file-sweeper", virtualThreads));
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.sweeper.interval-ms:10000}",
+            initialDelayString = "${app.upload.sweeper.interval-ms:10000}")
+    public void sweep() {
+        try {
+            int purged;
+            int total = 0;
+            do {
+                purged = sweepBatch();
+                total += purged;
+            } while (purged == batchSize);
+            if (total > 0) {
+                log.info("삭제 표시된 파일 {}개 정리", total);
+            }
+        } catch (Exception e) {
+            log.warn("삭제 표시된 파일 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 이번 배치에서 행까지 지운 개수. 실패한 행은 시도 횟수만 올리고 다음 실행에서 다시 시도한다
+    public int sweepBatch() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<FileEntity> tombstones = fileRepository.claimTombstones(maxAttempts, batchSize);
+            if (tombstones.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> purgedIds = new ArrayList<>();
+            List<Long> failedIds = new ArrayList<>();
+            List<FileEntity> blobReferences = new ArrayList<>();
+            List<CompletableFuture<Boolean>> unlinks = new ArrayList<>();
+            for (FileEntity file : tombstones) {
+                if (file.getContentHash() != null) {
+                    blobReferences.add(file);
+                    unlinks.add(CompletableFuture.completedFuture(true));
+                } else if (fileStorages.isLocal(file.getStorageBackend())) {
+                    unlinks.add(CompletableFuture.supplyAsync(() -> unlink(file), unlinkExecutor));
+                } else {
+                    // 세그먼트에 묶인 파일은 살아 있는 바이트 수만 줄이므로 이 트랜잭션에서 바로 처리한다
+                    unlinks.add(CompletableFuture.completedFuture(unlink(file)));
+                }
+            }
+
+            for (int i = 0; i < tombstones.size(); i++) {
+                (unlinks.get(i).join() ? purgedIds : failedIds).add(tombstones.get(i).getId());
+            }
+
+            // 내용 주소 저장 파일은 참조만 놓는다. 마지막 참조일 때만 커밋 뒤에 바이트가 지워진다
+            blobReferences.forEach(file -> fileBlobStore.release(file.getContentHash()));
+
+            if (!purgedIds.isEmpty()) {
+                fileRepository.purgeByIds(purgedIds);
+                metadataCache.invalidateAfterCommit(purgedIds);
+            }
+            if (!failedIds.isEmpty()) {
+                fileRepository.incrementPurgeAttempts(failedIds);
+            }
+            return purgedIds.size();
+        });
+        return purged != null ? purged : 0;
+    }
+
+    private boolean unlink(FileEntity file) {
+        try {
+            fileStorages.get(file.getStorageBackend()).delete(file.getFilePath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("파일 삭제 실패 (시도 {}회): {}", file.getPurgeAttempts() + 1, file.getFilePath(), e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        unlinkExecutor.shutdown();
+    }
+}
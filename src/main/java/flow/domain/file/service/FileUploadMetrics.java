@@ -0,0 +1,69 @@
+package flow.domain.file.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 지연이 정책 검사, 디스크, DB 중 어디서 생기는지 구분하기 위한 단계별 지표.
+ */
+@Component
+public class FileUploadMetrics {
+
+    public static final String STAGE_POLICY = "policy";
+    public static final String STAGE_STORAGE = "storage";
+    public static final String STAGE_DB = "db";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final Map<String, Timer> stageTimers;
+    private final Map<String, Timer> uploadTimers;
+    private final Counter uploadedBytes;
+
+    public FileUploadMetrics(MeterRegistry meterRegistry) {
+        this.stageTimers = Map.of(
+                STAGE_POLICY, stageTimer(meterRegistry, STAGE_POLICY),
+                STAGE_STORAGE, stageTimer(meterRegistry, STAGE_STORAGE),
+                STAGE_DB, stageTimer(meterRegistry, STAGE_DB));
+        this.uploadTimers = Map.of(
+                OUTCOME_SUCCESS, uploadTimer(meterRegistry, OUTCOME_SUCCESS),
+                OUTCOME_REJECTED, uploadTimer(meterRegistry, OUTCOME_REJECTED),
+                OUTCOME_ERROR, uploadTimer(meterRegistry, OUTCOME_ERROR));
+        this.uploadedBytes = Counter.builder("file.upload.bytes")
+                .description("저장된 업로드 바이트 수")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void recordStage(String stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpload(String outcome, long startNanos) {
+        uploadTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBytes(long bytes) {
+        uploadedBytes.increment(bytes);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("file.upload.stage")
+                .description("업로드 단계별 소요 시간")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Timer uploadTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("file.upload")
+                .description("업로드 전체 소요 시간")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
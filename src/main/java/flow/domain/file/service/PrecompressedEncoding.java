@@ -0,0 +1,62 @@
+package flow.domain.file.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 원본 옆에 미리 압축해 두는 변형의 종류. 선언 순서가 협상에서 같은 q 값일 때의 우선순위다.
+ * 변형은 원본 경로에 접미사를 붙인 위치에 둔다 (예: /flow/data/ab/cd/xxx.csv.zst).
+ */
+public enum PrecompressedEncoding {
+
+    ZSTD("zstd", ".zst"),
+    GZIP("gzip", ".gz");
+
+    private final String token;
+    private final String suffix;
+
+    PrecompressedEncoding(String token, String suffix) {
+        this.token = token;
+        this.suffix = suffix;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Path variantOf(Path original) {
+        return original.resolveSibling(original.getFileName() + suffix);
+    }
+
+    // DB 에는 "zstd,gzip" 처럼 쉼표로 이어서 둔다. 빈 문자열은 변형이 없다는 뜻이다
+    public static Set<PrecompressedEncoding> parse(String value) {
+        Set<PrecompressedEncoding> encodings = EnumSet.noneOf(PrecompressedEncoding.class);
+        if (value == null || value.isEmpty()) {
+            return encodings;
+        }
+        for (String token : value.split(",")) {
+            for (PrecompressedEncoding encoding : values()) {
+                if (encoding.token.equals(token.trim().toLowerCase(Locale.ROOT))) {
+                    encodings.add(encoding);
+                }
+            }
+        }
+        return encodings;
+    }
+
+    public static String join(Set<PrecompressedEncoding> encodings) {
+        return encodings.stream().map(PrecompressedEncoding::getToken).collect(Collectors.joining(","));
+    }
+
+    // 원본을 지우거나 옮길 때 함께 지운다. 변형이 없어도 된다
+    public static void deleteVariants(Path original) throws IOException {
+        for (PrecompressedEncoding encoding : values()) {
+            Files.deleteIfExists(encoding.variantOf(original));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package flow.domain.file.service;
+
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.entity.FileSegment;
+import flow.domain.file.repository.FileRepository;
+import flow.domain.file.repository.FileSegmentRepository;
+import flow.domain.file.storage.SegmentFileStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 삭제로 빈자리가 많아진 세그먼트를 압축한다.
+ * 살아 있는 파일만 활성 세그먼트로 옮겨 쓰고 위치를 compare-and-set 으로 바꾼 뒤, 세그먼트를 은퇴 처리한다.
+ * 은퇴한 세그먼트 파일은 이미 시작된 다운로드(sendfile 은 응답 뒤에 파일을 연다)를 위해 유예 시간이 지난 뒤 지운다.
+ * 죽은 인스턴스가 열어 둔 채 남긴 세그먼트는 기록이 끊긴 지 idle-seal-after 가 지나면 봉인해서 압축 대상에 넣는다.
+ */
+@Component
+@Slf4j
+public class SegmentCompactor {
+
+    private final FileRepository fileRepository;
+    private final FileSegmentRepository segmentRepository;
+    private final SegmentFileStorage segmentStorage;
+    private final FileMetadataCache metadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final double liveRatio;
+    private final Duration retireGrace;
+    private final Duration idleSealAfter;
+    private final int batchSize;
+
+    public SegmentCompactor(FileRepository fileRepository,
+                            FileSegmentRepository segmentRepository,
+                            SegmentFileStorage segmentStorage,
+                            FileMetadataCache metadataCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.upload.storage.segment.compaction-live-ratio:0.5}") double liveRatio,
+                            @Value("${app.upload.storage.segment.retire-grace:10m}") Duration retireGrace,
+                            @Value("${app.upload.storage.segment.idle-seal-after:1h}") Duration idleSealAfter,
+                            @Value("${app.upload.storage.segment.compaction-batch-size:4}") int batchSize) {
+        this.fileRepository = fileRepository;
+        this.segmentRepository = segmentRepository;
+        this.segmentStorage = segmentStorage;
+        this.metadataCache = metadataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.liveRatio = liveRatio;
+        this.retireGrace = retireGrace;
+        this.idleSealAfter = idleSealAfter;
+        this.batchSize = batchSize;
+    }
+
+    // 세그먼트 저장소를 끈 뒤에도 남은 세그먼트는 계속 정리한다
+    @Scheduled(fixedDelayString = "${app.upload.storage.segment.compaction-interval-ms:60000}",
+            initialDelayString = "${app.upload.storage.segment.compaction-interval-ms:60000}")
+    public void compact() {
+        try {
+            sealIdleSegments();
+            deleteRetiredSegments();
+            List<FileSegment> segments = segmentRepository.findCompactable(liveRatio,
+                    LocalDateTime.now().minus(retireGrace), PageRequest.of(0, batchSize));
+            for (FileSegment segment : segments) {
+                compactSegment(segment);
+            }
+        } catch (Exception e) {
+            log.warn("세그먼트 압축 실패: {}", e.getMessage());
+        }
+    }
+
+    public void compactSegment(FileSegment segment) throws IOException {
+        List<Long> movedIds = moveFiles(segment.getId());
+        transactionTemplate.executeWithoutResult(status ->
+                segmentRepository.retire(segment.getId(), LocalDateTime.now()));
+        segmentStorage.unmap(segment.getId());
+        log.info("세그먼트 압축: {} (크기 {} 바이트, 파일 {}개 이동)", segment.getId(), segment.getSize(), movedIds.size());
+    }
+
+    // 세그먼트를 가리키는 행을 모두 옮긴다. 옮기는 중 실패하면 예외로 빠져나가므로 돌아오면 남은 행이 없다
+    private List<Long> moveFiles(Long segmentId) throws IOException {
+        List<FileEntity> files = fileRepository.findByStorageLocationPrefix(SegmentFileStorage.NAME,
+                SegmentFileStorage.locationPrefix(segmentId) + "%");
+
+        List<Long> movedIds = new ArrayList<>();
+        for (FileEntity file : files) {
+            String target = segmentStorage.append(segmentStorage.read(file.getFilePath()));
+            Integer updated = transactionTemplate.execute(status ->
+                    fileRepository.updateFilePath(file.getId(), file.getFilePath(), target));
+            if (updated != null && updated > 0) {
+                movedIds.add(file.getId());
+            } else {
+                // 그 사이 스위퍼가 행을 지웠다. 방금 옮겨 쓴 바이트도 회수 대상으로 돌린다
+                segmentStorage.delete(target);
+            }
+        }
+
+        metadataCache.invalidate(movedIds);
+        return movedIds;
+    }
+
+    private void sealIdleSegments() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer sealed = transactionTemplate.execute(status ->
+                segmentRepository.sealIdle(now, now.minus(idleSealAfter)));
+        if (sealed != null && sealed > 0) {
+            log.info("기록이 끊긴 세그먼트 {}개 봉인", sealed);
+        }
+    }
+
+    private void deleteRetiredSegments() {
+        List<FileSegment> retired = segmentRepository.findRetiredBefore(LocalDateTime.now().minus(retireGrace),
+                PageRequest.of(0, batchSize));
+        for (FileSegment segment : retired) {
+            try {
+                // 은퇴 뒤에 저장된 행이 있으면 지우기 전에 마저 옮긴다
+                List<Long> lateIds = moveFiles(segment.getId());
+                if (!lateIds.isEmpty()) {
+                    log.warn("은퇴한 세그먼트에서 파일 {}개를 늦게 옮겼습니다: {}", lateIds.size(), segment.getId());
+                }
+                segmentStorage.deleteSegmentFile(segment.getId());
+                transactionTemplate.executeWithoutResult(status -> segmentRepository.deleteById(segment.getId()));
+            } catch (IOException e) {
+                log.warn("은퇴한 세그먼트 파일 삭제 실패: {}", segment.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package flow.domain.file.service;
+
+import flow.domain.file.sniff.ContentSniffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 업로드 스트림을 디스크로 옮길 때 쓰는 고정 크기 버퍼 풀.
+ * 풀이 비어 있으면 기다리지 않고 새 버퍼를 만들고, 반납 시 풀이 가득 차 있으면 버린다.
+ */
+@Component
+public class UploadBufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> pool;
+
+    public UploadBufferPool(@Value("${app.upload.buffer-size:65536}") int bufferSize,
+                            @Value("${app.upload.buffer-pool-size:64}") int poolSize) {
+        // 첫 버퍼 하나로 형식 판별에 필요한 앞부분을 모두 담을 수 있어야 한다
+        this.bufferSize = Math.max(bufferSize, ContentSniffer.HEADER_SIZE);
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = pool.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            pool.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,60 @@
+package flow.domain.file.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 업로드 파일을 저장명(UUID)이나 내용 해시의 앞 글자로 나눈 하위 디렉토리에 배치한다.
+ * 깊이 2 면 "3f/a9/3fa9...". 한 디렉토리에 파일이 수백만 개 쌓이지 않도록 한다.
+ * 한 번 만든 디렉토리는 기억해 두고 요청마다 파일 시스템을 다시 확인하지 않는다.
+ */
+@Component
+public class UploadDirectoryLayout {
+
+    private static final int SHARD_WIDTH = 2;
+
+    private final int depth;
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+
+    public UploadDirectoryLayout(@Value("${app.upload.shard-depth:2}") int depth) {
+        this.depth = Math.max(depth, 0);
+    }
+
+    public Path resolve(Path root, String name) {
+        String shardKey = shardKey(name);
+        Path dir = root;
+        for (int level = 0; level < depth; level++) {
+            dir = dir.resolve(shardKey.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH));
+        }
+        return dir.resolve(name);
+    }
+
+    public void ensureDirectory(Path dir) throws IOException {
+        if (createdDirectories.contains(dir)) {
+            return;
+        }
+        Files.createDirectories(dir);
+        createdDirectories.add(dir);
+    }
+
+    // 저장명과 해시는 앞부분이 무작위 16진수라 그대로 쓰고, 아니면 이름의 해시값으로 나눈다
+    private String shardKey(String name) {
+        int length = depth * SHARD_WIDTH;
+        String prefix = name.length() >= length ? name.substring(0, length).toLowerCase() : "";
+        if (prefix.length() == length && prefix.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            return prefix;
+        }
+
+        StringBuilder key = new StringBuilder();
+        while (key.length() < length) {
+            key.append(String.format("%08x", (name + key.length()).hashCode()));
+        }
+        return key.substring(0, length);
+    }
+}
@@ -0,0 +1,271 @@
+package flow.domain.file.service;
+
+import flow.common.exception.BusinessException;
+import flow.domain.file.dto.StorageMigrationResponse;
+import flow.domain.file.entity.FileBlob;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.repository.FileBlobRepository;
+import flow.domain.file.repository.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 평평한 디렉토리에 쌓인 기존 파일을 {@link UploadDirectoryLayout} 배치로 옮긴다.
+ * 새 위치에 하드 링크를 만들고, 경로를 배치 단위로 갱신해 커밋한 뒤에야 이전 경로를 지운다.
+ * 옮기는 동안에도 다운로드는 이전 경로든 새 경로든 항상 파일을 찾을 수 있다.
+ * 여러 인스턴스나 관리자 요청이 겹쳐도 DB 의 이름 있는 락으로 한 번에 하나만 실행한다.
+ */
+@Component
+@Slf4j
+public class UploadLayoutMigrator {
+
+    private static final String BLOB_DIRECTORY = "blobs";
+    private static final String MIGRATION_LOCK = "flow.upload-layout-migration";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final FileRepository fileRepository;
+    private final FileBlobRepository fileBlobRepository;
+    private final UploadDirectoryLayout directoryLayout;
+    private final FileMetadataCache metadataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final String uploadPath;
+
+    public UploadLayoutMigrator(FileRepository fileRepository,
+                                FileBlobRepository fileBlobRepository,
+                                UploadDirectoryLayout directoryLayout,
+                                FileMetadataCache metadataCache,
+                                PlatformTransactionManager transactionManager,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.upload.path:/flow/data}") String uploadPath) {
+        this.fileRepository = fileRepository;
+        this.fileBlobRepository = fileBlobRepository;
+        this.directoryLayout = directoryLayout;
+        this.metadataCache = metadataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.uploadPath = uploadPath;
+    }
+
+    /**
+     * 이미 다른 곳에서 이전 중이면 기다리지 않고 conflict 로 거절한다.
+     * 락은 커넥션에 묶이므로 이전이 끝날 때까지 커넥션 하나를 잡고 있고, 인스턴스가 죽으면 함께 풀린다.
+     */
+    public StorageMigrationResponse migrate(int batchSize) {
+        return jdbcTemplate.execute((ConnectionCallback<StorageMigrationResponse>) connection -> {
+            if (!tryLock(connection)) {
+                throw BusinessException.conflict("다른 곳에서 업로드 디렉토리 이전이 진행 중입니다.");
+            }
+            try {
+                return migrateLocked(batchSize);
+            } finally {
+                unlock(connection);
+            }
+        });
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, MIGRATION_LOCK);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, MIGRATION_LOCK);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("업로드 디렉토리 이전 락 해제 실패: {}", e.getMessage());
+        }
+    }
+
+    private StorageMigrationResponse migrateLocked(int batchSize) {
+        Counts counts = new Counts();
+        migrateFiles(batchSize, counts);
+        migrateBlobs(batchSize, counts);
+        log.info("업로드 디렉토리 배치 이전 완료: 조회 {}, 이동 {}, 건너뜀 {}, 실패 {}",
+                counts.scanned, counts.moved, counts.skipped, counts.failed);
+        return StorageMigrationResponse.builder()
+                .scanned(counts.scanned)
+                .moved(counts.moved)
+                .skipped(counts.skipped)
+                .failed(counts.failed)
+                .build();
+    }
+
+    private void migrateFiles(int batchSize, Counts counts) {
+        Path root = Paths.get(uploadPath);
+        long lastId = 0L;
+        while (true) {
+            List<FileEntity> batch = fileRepository.findUniqueFilesAfter(lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+
+            List<Move> moves = new ArrayList<>();
+            for (FileEntity file : batch) {
+                Move move = link(Paths.get(file.getFilePath()),
+                        directoryLayout.resolve(root, file.getStoredFilename()), file.getFileSize(), counts);
+                if (move != null) {
+                    move.fileId = file.getId();
+                    moves.add(move);
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> moves.forEach(move -> move.updated =
+                    fileRepository.updateFilePath(move.fileId, move.source.toString(), move.target.toString()) > 0));
+            // 이전 경로를 지우기 전에 캐시에 남은 이전 경로를 버린다
+            metadataCache.invalidate(moves.stream().map(move -> move.fileId).toList());
+            finish(moves, counts);
+        }
+    }
+
+    private void migrateBlobs(int batchSize, Counts counts) {
+        Path root = Paths.get(uploadPath).resolve(BLOB_DIRECTORY);
+        String lastHash = "";
+        while (true) {
+            List<FileBlob> batch = fileBlobRepository.findBlobsAfter(lastHash, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            lastHash = batch.get(batch.size() - 1).getContentHash();
+
+            List<Move> moves = new ArrayList<>();
+            for (FileBlob blob : batch) {
+                Move move = link(Paths.get(blob.getFilePath()),
+                        directoryLayout.resolve(root, blob.getContentHash()), blob.getFileSize(), counts);
+                if (move != null) {
+                    move.contentHash = blob.getContentHash();
+                    moves.add(move);
+                }
+            }
+
+            // 저장 단위 경로와 이를 참조하는 파일 행들의 경로를 같은 트랜잭션에서 바꾼다
+            transactionTemplate.executeWithoutResult(status -> moves.forEach(move -> {
+                move.updated = fileBlobRepository.updateFilePath(
+                        move.contentHash, move.source.toString(), move.target.toString()) > 0;
+                if (move.updated) {
+                    fileRepository.updateFilePathByContentHash(move.contentHash, move.target.toString());
+                }
+            }));
+            // 해시를 공유하는 파일 id 를 따로 모으지 않고 캐시를 통째로 비운다. 이전 작업에서만 일어난다
+            if (!moves.isEmpty()) {
+                metadataCache.invalidateAll();
+            }
+            finish(moves, counts);
+        }
+    }
+
+    // 이미 새 배치에 있으면 null. 새 위치에 링크를 만들지 못하면 실패로 세고 null
+    private Move link(Path source, Path target, long fileSize, Counts counts) {
+        counts.scanned++;
+        if (source.equals(target)) {
+            counts.skipped++;
+            return null;
+        }
+
+        try {
+            directoryLayout.ensureDirectory(target.getParent());
+            if (Files.exists(target)) {
+                // 이전 실행이 링크나 복사까지만 하고 중단된 경우. 크기가 맞아야 그대로 쓴다
+                if (Files.size(target) == fileSize) {
+                    log.debug("이미 새 위치에 있는 파일: {}", target);
+                    return new Move(source, target, false);
+                }
+                log.warn("새 위치에 크기가 다른 파일이 있어 다시 만듭니다: {}", target);
+                Files.delete(target);
+            }
+
+            try {
+                Files.createLink(target, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                copyAtomically(source, target);
+            }
+            return new Move(source, target, true);
+        } catch (IOException e) {
+            log.warn("파일 이전 실패: {} -> {}", source, target, e);
+            counts.failed++;
+            return null;
+        }
+    }
+
+    // 복사 도중 중단되어도 새 위치에 반쯤 쓴 파일이 남지 않도록 임시 파일에 받은 뒤 이름을 바꾼다
+    private static void copyAtomically(Path source, Path target) throws IOException {
+        Path tempFile = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            Files.copy(source, tempFile);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void finish(List<Move> moves, Counts counts) {
+        for (Move move : moves) {
+            // 경로 갱신이 반영된 것만 이전 경로를 지우고, 그 사이 삭제된 파일은 이번 실행이 만든 새 위치만 지운다
+            // 압축 변형은 옮기지 않고 지운다. 경로를 갱신하면서 새 위치에서 다시 만들도록 표시했다
+            Path obsolete = move.updated ? move.source : move.created ? move.target : null;
+            if (obsolete != null) {
+                try {
+                    Files.deleteIfExists(obsolete);
+                    if (move.updated) {
+                        PrecompressedEncoding.deleteVariants(obsolete);
+                    }
+                } catch (IOException e) {
+                    log.warn("이전 후 남은 파일 삭제 실패: {}", obsolete, e);
+                }
+            }
+            if (move.updated) {
+                counts.moved++;
+            } else {
+                counts.skipped++;
+            }
+        }
+    }
+
+    private static final class Move {
+        private final Path source;
+        private final Path target;
+        // 이번 실행이 새 위치에 만든 링크나 복사본인지. 아니면 경로 갱신이 실패해도 지우지 않는다
+        private final boolean created;
+        private Long fileId;
+        private String contentHash;
+        private boolean updated;
+
+        private Move(Path source, Path target, boolean created) {
+            this.source = source;
+            this.target = target;
+            this.created = created;
+        }
+    }
+
+    private static final class Counts {
+        private int scanned;
+        private int moved;
+        private int skipped;
+        private int failed;
+    }
+}
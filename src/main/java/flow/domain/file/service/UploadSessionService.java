@@ -0,0 +1,20 @@
+package flow.domain.file.service;
+
+import flow.domain.file.dto.UploadSessionRequest;
+import flow.domain.file.dto.UploadSessionResponse;
+import flow.domain.file.entity.FileEntity;
+
+import java.io.InputStream;
+
+public interface UploadSessionService {
+
+    UploadSessionResponse initUpload(UploadSessionRequest request);
+
+    UploadSessionResponse getUpload(String sessionId);
+
+    void uploadChunk(String sessionId, int chunkIndex, long contentLength, InputStream inputStream);
+
+    FileEntity completeUpload(String sessionId);
+
+    void abortUpload(String sessionId);
+}
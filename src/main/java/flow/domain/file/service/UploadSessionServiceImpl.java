@@ -0,0 +1,287 @@
+package flow.domain.file.service;
+
+import flow.common.exception.BusinessException;
+import flow.domain.file.dto.UploadSessionRequest;
+import flow.domain.file.dto.UploadSessionResponse;
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.entity.UploadChunk;
+import flow.domain.file.entity.UploadSession;
+import flow.domain.file.entity.UploadSessionStatus;
+import flow.domain.file.repository.UploadChunkRepository;
+import flow.domain.file.repository.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 큰 파일을 청크로 나눠 올리는 세션 기반 업로드.
+ * 시작 시 전체 크기의 임시 파일을 만들어 두고, 청크는 순서와 상관없이 (동시에도) 자기 위치에 바로 기록한다.
+ * 그래서 완료 시 청크를 이어 붙이는 복사가 없다.
+ * 기록 중인 청크 수를 세션 행에 세어 두고, 완료와 중단은 그 수가 0 일 때 상태 compare-and-set 으로만 넘어간다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private static final String SESSION_DIRECTORY = ".uploads";
+    private static final String PART_SUFFIX = ".part";
+    private static final int MAX_CHUNK_COUNT = 10000;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final FileService fileService;
+    private final UploadBufferPool bufferPool;
+    private final UploadDirectoryLayout directoryLayout;
+
+    @Value("${app.upload.path:/flow/data}")
+    private String uploadPath;
+
+    @Value("${app.upload.chunked.max-file-size:2GB}")
+    private DataSize maxFileSize;
+
+    @Value("${app.upload.chunked.chunk-size:8MB}")
+    private DataSize chunkSize;
+
+    @Value("${app.upload.chunked.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Override
+    public UploadSessionResponse initUpload(UploadSessionRequest request) {
+        // 확장자 정책은 청크를 받기 전에 검사해서 차단된 파일의 본문은 아예 받지 않는다
+        fileService.checkUploadAllowed(request.getFilename());
+
+        if (request.getFileSize() > maxFileSize.toBytes()) {
+            throw BusinessException.badRequest(
+                    String.format("파일 크기는 %dMB를 초과할 수 없습니다.", maxFileSize.toMegabytes()));
+        }
+
+        long sessionChunkSize = Math.max(chunkSize.toBytes(), ceilDiv(request.getFileSize(), MAX_CHUNK_COUNT));
+        String sessionId = UUID.randomUUID().toString();
+        Path sessionDir = Paths.get(uploadPath).resolve(SESSION_DIRECTORY);
+        Path tempPath = sessionDir.resolve(sessionId + PART_SUFFIX);
+
+        try {
+            directoryLayout.ensureDirectory(sessionDir);
+            // 전체 크기로 늘려 두기만 하고 내용은 쓰지 않는다. 대부분의 파일 시스템에서 빈 구간은 디스크를 차지하지 않는다
+            try (RandomAccessFile file = new RandomAccessFile(tempPath.toFile(), "rw")) {
+                file.setLength(request.getFileSize());
+            }
+        } catch (IOException e) {
+            log.error("업로드 세션 임시 파일 생성 실패: {}", e.getMessage(), e);
+            throw BusinessException.internalServerError("업로드 세션 생성에 실패했습니다.");
+        }
+
+        UploadSession saved = uploadSessionRepository.save(UploadSession.builder()
+                .id(sessionId)
+                .originalFilename(request.getFilename())
+                .contentType(request.getContentType())
+                .totalSize(request.getFileSize())
+                .chunkSize(sessionChunkSize)
+                .tempPath(tempPath.toString())
+                .expiresAt(LocalDateTime.now().plus(sessionTtl))
+                .build());
+        log.debug("업로드 세션 생성: {} ({} bytes, 청크 {}개)", saved.getId(), saved.getTotalSize(), saved.getChunkCount());
+        return UploadSessionResponse.of(saved, List.of());
+    }
+
+    @Override
+    public UploadSessionResponse getUpload(String sessionId) {
+        UploadSession session = getActiveSession(sessionId);
+        return UploadSessionResponse.of(session, uploadChunkRepository.findChunkIndexes(sessionId));
+    }
+
+    @Override
+    public void uploadChunk(String sessionId, int chunkIndex, long contentLength, InputStream inputStream) {
+        UploadSession session = getActiveSession(sessionId);
+        if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw BusinessException.badRequest("청크 번호가 범위를 벗어났습니다: " + chunkIndex);
+        }
+
+        long expectedSize = session.expectedChunkSize(chunkIndex);
+        if (contentLength >= 0 && contentLength != expectedSize) {
+            throw BusinessException.badRequest(
+                    String.format("청크 %d 의 크기는 %d bytes 여야 합니다.", chunkIndex, expectedSize));
+        }
+
+        // 기록하는 동안 완료나 중단이 임시 파일을 옮기거나 지우지 못하게 기록 중인 청크로 센다
+        if (uploadSessionRepository.beginChunkWrite(sessionId, UploadSessionStatus.UPLOADING,
+                LocalDateTime.now()) == 0) {
+            throw BusinessException.conflict("이미 완료 처리 중인 업로드입니다.");
+        }
+        try {
+            long written = writeChunk(Paths.get(session.getTempPath()), session.chunkOffset(chunkIndex), expectedSize,
+                    inputStream);
+            if (written != expectedSize) {
+                throw BusinessException.badRequest(
+                        String.format("청크 %d 의 크기는 %d bytes 여야 합니다.", chunkIndex, expectedSize));
+            }
+
+            // 같은 청크를 다시 보내면 같은 위치에 덮어쓰므로 수신 기록은 한 번만 남긴다
+            if (!uploadChunkRepository.existsBySessionIdAndChunkIndex(sessionId, chunkIndex)) {
+                try {
+                    uploadChunkRepository.save(UploadChunk.builder()
+                            .sessionId(sessionId)
+                            .chunkIndex(chunkIndex)
+                            .chunkSize(written)
+                            .build());
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("이미 기록된 청크: {} #{}", sessionId, chunkIndex);
+                }
+            }
+        } finally {
+            uploadSessionRepository.endChunkWrite(sessionId);
+        }
+    }
+
+    @Override
+    public FileEntity completeUpload(String sessionId) {
+        UploadSession session = getActiveSession(sessionId);
+        if (uploadSessionRepository.updateStatusIfIdle(sessionId, UploadSessionStatus.UPLOADING,
+                UploadSessionStatus.COMPLETING) == 0) {
+            throw notIdle(sessionId);
+        }
+
+        boolean completed = false;
+        try {
+            long received = uploadChunkRepository.countBySessionId(sessionId);
+            if (received < session.getChunkCount()) {
+                throw BusinessException.badRequest(
+                        String.format("받지 못한 청크가 있습니다. (%d/%d)", received, session.getChunkCount()));
+            }
+
+            FileEntity saved = fileService.storeAssembledFile(
+                    session.getOriginalFilename(), session.getContentType(), Paths.get(session.getTempPath()));
+            completed = true;
+            discard(session);
+            return saved;
+        } finally {
+            // 실패하면 빠진 청크를 보낸 뒤 다시 완료할 수 있게 되돌린다
+            if (!completed) {
+                uploadSessionRepository.updateStatus(sessionId, UploadSessionStatus.COMPLETING,
+                        UploadSessionStatus.UPLOADING);
+            }
+        }
+    }
+
+    @Override
+    public void abortUpload(String sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> BusinessException.notFound("업로드 세션을 찾을 수 없습니다."));
+        // 완료 중이거나 청크를 기록 중인 세션의 임시 파일은 지우지 않는다
+        if (uploadSessionRepository.updateStatusIfIdle(sessionId, UploadSessionStatus.UPLOADING,
+                UploadSessionStatus.ABORTED) == 0) {
+            throw notIdle(sessionId);
+        }
+        discard(session);
+    }
+
+    // 완료되지 않고 만료된 세션의 임시 파일과 수신 기록을 정리한다
+    @Scheduled(fixedDelayString = "${app.upload.chunked.cleanup-interval-ms:600000}")
+    public void cleanupExpiredSessions() {
+        try {
+            // 기록이나 완료 중에 인스턴스가 죽어 상태가 남은 세션은 ttl 만큼 더 지난 뒤 정리한다
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime abandonedBefore = now.minus(sessionTtl);
+            List<UploadSession> expired;
+            int discarded;
+            do {
+                expired = uploadSessionRepository.findExpired(now, PageRequest.of(0, CLEANUP_BATCH_SIZE));
+                discarded = 0;
+                for (UploadSession session : expired) {
+                    if (uploadSessionRepository.abortExpired(session.getId(), UploadSessionStatus.UPLOADING,
+                            UploadSessionStatus.ABORTED, now, abandonedBefore) > 0) {
+                        discard(session);
+                        discarded++;
+                    }
+                }
+                if (discarded > 0) {
+                    log.info("만료된 업로드 세션 {}개 정리", discarded);
+                }
+                // 아직 정리할 수 없는 행만 남았으면 다음 주기에 다시 본다
+            } while (expired.size() == CLEANUP_BATCH_SIZE && discarded > 0);
+        } catch (Exception e) {
+            log.warn("만료된 업로드 세션 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private UploadSession getActiveSession(String sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> BusinessException.notFound("업로드 세션을 찾을 수 없습니다."));
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw BusinessException.notFound("만료된 업로드 세션입니다.");
+        }
+        if (session.getStatus() != UploadSessionStatus.UPLOADING) {
+            throw BusinessException.conflict("이미 완료 처리 중인 업로드입니다.");
+        }
+        return session;
+    }
+
+    private BusinessException notIdle(String sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> BusinessException.notFound("업로드 세션을 찾을 수 없습니다."));
+        if (session.getStatus() == UploadSessionStatus.UPLOADING && session.getActiveWrites() > 0) {
+            return BusinessException.conflict("기록 중인 청크가 있습니다. 청크 전송이 끝난 뒤 다시 시도해주세요.");
+        }
+        return BusinessException.conflict("이미 완료 처리 중인 업로드입니다.");
+    }
+
+    // 청크마다 파일을 따로 열어 자기 위치에만 쓰므로 여러 청크를 동시에 받아도 서로 간섭하지 않는다
+    private long writeChunk(Path tempPath, long offset, long expectedSize, InputStream inputStream) {
+        byte[] buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            long written = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                if (written + read > expectedSize) {
+                    throw BusinessException.badRequest("청크가 지정된 크기보다 큽니다.");
+                }
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    written += channel.write(byteBuffer, offset + written);
+                }
+            }
+            return written;
+        } catch (IOException e) {
+            log.error("청크 기록 실패: {}", e.getMessage(), e);
+            throw BusinessException.internalServerError("청크 저장에 실패했습니다.");
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(Paths.get(session.getTempPath()));
+        } catch (IOException e) {
+            log.warn("업로드 세션 임시 파일 삭제 실패: {}", session.getTempPath(), e);
+        }
+        uploadChunkRepository.deleteBySessionId(session.getId());
+        uploadSessionRepository.deleteById(session.getId());
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,36 @@
+package flow.domain.file.service;
+
+import flow.common.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 여러 파일을 한 요청으로 올릴 때 파일별 처리(정책 검사, 디스크 기록)를 병렬로 돌리는 실행기.
+ * 디스크와 DB 를 한꺼번에 몰아붙이지 않도록 동시에 처리하는 파일 수를 제한한다.
+ */
+@Component
+public class UploadTaskExecutor {
+
+    private final ExecutorService executor;
+
+    public UploadTaskExecutor(@Value("${app.upload.batch.parallelism:4}") int parallelism,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                ThreadFactories.named("file-upload", virtualThreads));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,142 @@
+package flow.domain.file.sniff;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 업로드 스트림 앞부분만 보고 실제 파일 형식을 판별한다.
+ * 파일명이나 클라이언트가 보낸 Content-Type 은 보지 않는다.
+ */
+public final class ContentSniffer {
+
+    // 시그니처 판별에 필요한 앞부분 크기
+    public static final int HEADER_SIZE = 4096;
+
+    private static final int JAVA_CLASS_MIN_MAJOR_VERSION = 45;
+    // DOS 헤더의 e_lfanew 필드 위치와 DOS 헤더 크기
+    private static final int PE_HEADER_OFFSET_FIELD = 0x3C;
+    private static final int DOS_HEADER_SIZE = 0x40;
+
+    private ContentSniffer() {
+    }
+
+    public static SniffedType sniff(byte[] header, int length) {
+        if (length < 2) {
+            return null;
+        }
+
+        if (startsWith(header, length, 'M', 'Z') && hasPeSignature(header, length)) {
+            return SniffedType.WINDOWS_EXECUTABLE;
+        }
+        if (startsWith(header, length, 0x7F, 'E', 'L', 'F')) {
+            return SniffedType.ELF_EXECUTABLE;
+        }
+        if (startsWith(header, length, 0xFE, 0xED, 0xFA, 0xCE) || startsWith(header, length, 0xFE, 0xED, 0xFA, 0xCF)
+                || startsWith(header, length, 0xCE, 0xFA, 0xED, 0xFE) || startsWith(header, length, 0xCF, 0xFA, 0xED, 0xFE)) {
+            return SniffedType.MACH_O_EXECUTABLE;
+        }
+        if (startsWith(header, length, 0xCA, 0xFE, 0xBA, 0xBE)) {
+            // Mach-O 유니버설 바이너리와 자바 클래스가 같은 시그니처를 쓴다. 뒤 4바이트가 아키텍처 수면 Mach-O
+            return length >= 8 && readInt(header, 4) < JAVA_CLASS_MIN_MAJOR_VERSION
+                    ? SniffedType.MACH_O_EXECUTABLE
+                    : SniffedType.JAVA_CLASS;
+        }
+        if (startsWith(header, length, '#', '!')) {
+            return sniffScript(header, length);
+        }
+        if (startsWith(header, length, 'P', 'K', 0x03, 0x04) || startsWith(header, length, 'P', 'K', 0x05, 0x06)) {
+            return SniffedType.ZIP;
+        }
+        if (startsWith(header, length, 0x1F, 0x8B)) {
+            return SniffedType.GZIP;
+        }
+        if (startsWith(header, length, 'R', 'a', 'r', '!', 0x1A, 0x07)) {
+            return SniffedType.RAR;
+        }
+        if (startsWith(header, length, '7', 'z', 0xBC, 0xAF, 0x27, 0x1C)) {
+            return SniffedType.SEVEN_ZIP;
+        }
+        if (startsWith(header, length, 0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1)) {
+            return SniffedType.OLE_COMPOUND;
+        }
+        if (startsWith(header, length, '%', 'P', 'D', 'F', '-')) {
+            return SniffedType.PDF;
+        }
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return SniffedType.PNG;
+        }
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) {
+            return SniffedType.JPEG;
+        }
+        if (startsWith(header, length, 'G', 'I', 'F', '8')) {
+            return SniffedType.GIF;
+        }
+        return null;
+    }
+
+    /**
+     * "MZ" 로 시작하는 텍스트도 있으므로 e_lfanew 가 가리키는 곳의 "PE\0\0" 까지 확인한다.
+     * 앞부분 밖을 가리키면 판별하지 않는다. 실제 PE 는 e_lfanew 가 수백 바이트 안쪽이다.
+     */
+    private static boolean hasPeSignature(byte[] header, int length) {
+        if (length < DOS_HEADER_SIZE) {
+            return false;
+        }
+        long peOffset = readIntLittleEndian(header, PE_HEADER_OFFSET_FIELD) & 0xFFFFFFFFL;
+        if (peOffset < DOS_HEADER_SIZE || peOffset + 4 > length) {
+            return false;
+        }
+        int offset = (int) peOffset;
+        return header[offset] == 'P' && header[offset + 1] == 'E' && header[offset + 2] == 0 && header[offset + 3] == 0;
+    }
+
+    // "#!/usr/bin/env python3" 처럼 첫 줄의 인터프리터 이름으로 스크립트 종류를 나눈다
+    private static SniffedType sniffScript(byte[] header, int length) {
+        int lineEnd = 2;
+        while (lineEnd < length && header[lineEnd] != '\n' && header[lineEnd] != '\r') {
+            lineEnd++;
+        }
+        String line = new String(header, 2, lineEnd - 2, StandardCharsets.US_ASCII).trim();
+
+        String[] tokens = line.split("\\s+");
+        String interpreter = tokens[0].substring(tokens[0].lastIndexOf('/') + 1);
+        if (interpreter.equals("env") && tokens.length > 1) {
+            interpreter = tokens[1];
+        }
+
+        if (interpreter.startsWith("python")) {
+            return SniffedType.PYTHON_SCRIPT;
+        }
+        if (interpreter.startsWith("perl")) {
+            return SniffedType.PERL_SCRIPT;
+        }
+        if (interpreter.equals("node") || interpreter.equals("nodejs")) {
+            return SniffedType.NODE_SCRIPT;
+        }
+        if (interpreter.endsWith("sh")) {
+            return SniffedType.SHELL_SCRIPT;
+        }
+        return SniffedType.SCRIPT;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readIntLittleEndian(byte[] header, int offset) {
+        return (header[offset] & 0xFF) | ((header[offset + 1] & 0xFF) << 8)
+                | ((header[offset + 2] & 0xFF) << 16) | ((header[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int readInt(byte[] header, int offset) {
+        return ((header[offset] & 0xFF) << 24) | ((header[offset + 1] & 0xFF) << 16)
+                | ((header[offset + 2] & 0xFF) << 8) | (header[offset + 3] & 0xFF);
+    }
+}
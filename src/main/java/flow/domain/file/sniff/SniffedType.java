@@ -0,0 +1,55 @@
+package flow.domain.file.sniff;
+
+import java.util.Set;
+
+/**
+ * 파일 앞부분의 시그니처로 판별한 실제 형식.
+ * policyExtensions 는 확장자 정책에 대조할 확장자이고,
+ * compatibleExtensions 는 같은 시그니처를 정상적으로 쓰는 확장자다 (예: docx 는 zip 컨테이너).
+ */
+public enum SniffedType {
+
+    WINDOWS_EXECUTABLE("application/vnd.microsoft.portable-executable",
+            Set.of("exe", "dll", "scr", "cpl", "sys"), Set.of()),
+    ELF_EXECUTABLE("application/x-elf", Set.of("elf", "so", "bin"), Set.of()),
+    MACH_O_EXECUTABLE("application/x-mach-binary", Set.of("macho", "dylib"), Set.of()),
+    JAVA_CLASS("application/java-vm", Set.of("class"), Set.of()),
+    SHELL_SCRIPT("text/x-shellscript", Set.of("sh", "bash"), Set.of()),
+    PYTHON_SCRIPT("text/x-python", Set.of("py"), Set.of()),
+    PERL_SCRIPT("text/x-perl", Set.of("pl"), Set.of()),
+    NODE_SCRIPT("text/javascript", Set.of("js"), Set.of()),
+    SCRIPT("text/x-script", Set.of("sh"), Set.of()),
+    ZIP("application/zip", Set.of("zip"),
+            Set.of("docx", "xlsx", "pptx", "odt", "ods", "odp", "hwpx", "epub", "jar", "apk", "war", "xpi")),
+    GZIP("application/gzip", Set.of("gz"), Set.of("tgz", "tar.gz", "svgz")),
+    RAR("application/vnd.rar", Set.of("rar"), Set.of()),
+    SEVEN_ZIP("application/x-7z-compressed", Set.of("7z"), Set.of()),
+    OLE_COMPOUND("application/x-ole-storage", Set.of("msi"), Set.of("doc", "xls", "ppt", "msg", "hwp")),
+    PDF("application/pdf", Set.of("pdf"), Set.of()),
+    PNG("image/png", Set.of("png"), Set.of()),
+    JPEG("image/jpeg", Set.of("jpg", "jpeg"), Set.of("jpe", "jfif")),
+    GIF("image/gif", Set.of("gif"), Set.of());
+
+    private final String mimeType;
+    private final Set<String> policyExtensions;
+    private final Set<String> compatibleExtensions;
+
+    SniffedType(String mimeType, Set<String> policyExtensions, Set<String> compatibleExtensions) {
+        this.mimeType = mimeType;
+        this.policyExtensions = policyExtensions;
+        this.compatibleExtensions = compatibleExtensions;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public Set<String> getPolicyExtensions() {
+        return policyExtensions;
+    }
+
+    // 파일명 확장자가 이 형식을 정상적으로 담는 확장자인지
+    public boolean isDeclaredBy(String extension) {
+        return policyExtensions.contains(extension) || compatibleExtensions.contains(extension);
+    }
+}
@@ -0,0 +1,31 @@
+package flow.domain.file.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 업로드된 파일 바이트를 두는 저장소.
+ * 위치(location)는 저장소마다 형식이 다른 문자열로 {@code FileEntity.filePath} 에 기록되고,
+ * 어느 저장소인지는 {@code FileEntity.storageBackend} 의 {@link #getName()} 값으로 구분한다.
+ */
+public interface FileStorage {
+
+    String getName();
+
+    /**
+     * 메모리에 모두 들어온 파일을 저장하고 위치를 돌려준다.
+     */
+    String write(String storedFilename, byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * 다운로드가 sendfile / transferTo 로 보낼 수 있도록 바이트가 있는 파일과 시작 위치를 돌려준다.
+     */
+    StoredRegion locate(String location);
+
+    /**
+     * 바이트를 읽기 전용 버퍼로 돌려준다.
+     */
+    ByteBuffer read(String location) throws IOException;
+
+    void delete(String location) throws IOException;
+}
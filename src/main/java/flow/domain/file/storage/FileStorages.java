@@ -0,0 +1,39 @@
+package flow.domain.file.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * FileEntity 의 storageBackend 값으로 저장소를 찾고, 새 파일을 둘 저장소를 고른다.
+ * storageBackend 가 없는 기존 행은 로컬 저장소에 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileStorages {
+
+    private final LocalFileStorage localFileStorage;
+    private final SegmentFileStorage segmentFileStorage;
+
+    public FileStorage get(String storageBackend) {
+        if (storageBackend == null || LocalFileStorage.NAME.equals(storageBackend)) {
+            return localFileStorage;
+        }
+        if (SegmentFileStorage.NAME.equals(storageBackend)) {
+            return segmentFileStorage;
+        }
+        throw new IllegalStateException("알 수 없는 저장소입니다: " + storageBackend);
+    }
+
+    public boolean isLocal(String storageBackend) {
+        return get(storageBackend) == localFileStorage;
+    }
+
+    public FileStorage local() {
+        return localFileStorage;
+    }
+
+    // 세그먼트 저장소가 켜져 있으면 작은 파일은 세그먼트에 묶는다
+    public FileStorage forSmallFile(long fileSize) {
+        return segmentFileStorage.accepts(fileSize) ? segmentFileStorage : localFileStorage;
+    }
+}
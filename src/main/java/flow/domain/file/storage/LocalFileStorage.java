@@ -0,0 +1,69 @@
+package flow.domain.file.storage;
+
+import flow.domain.file.service.PrecompressedEncoding;
+import flow.domain.file.service.UploadDirectoryLayout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 업로드 하나를 파일 하나로 두는 기본 저장소. 위치는 파일의 절대 경로다.
+ * 큰 파일의 스트리밍 기록, 청크 조립, 내용 주소 저장은 FileServiceImpl 이 이 배치대로 직접 쓴다.
+ */
+@Component
+public class LocalFileStorage implements FileStorage {
+
+    public static final String NAME = "local";
+
+    private final UploadDirectoryLayout directoryLayout;
+    private final Path root;
+
+    public LocalFileStorage(UploadDirectoryLayout directoryLayout,
+                            @Value("${app.upload.path:/flow/data}") String uploadPath) {
+        this.directoryLayout = directoryLayout;
+        this.root = Paths.get(uploadPath);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String write(String storedFilename, byte[] bytes, int offset, int length) throws IOException {
+        Path filePath = directoryLayout.resolve(root, storedFilename);
+        directoryLayout.ensureDirectory(filePath.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(filePath, StandardOpenOption.CREATE_NEW)) {
+            outputStream.write(bytes, offset, length);
+        }
+        return filePath.toString();
+    }
+
+    @Override
+    public StoredRegion locate(String location) {
+        return new StoredRegion(Paths.get(location), 0);
+    }
+
+    @Override
+    public ByteBuffer read(String location) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(location), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // 미리 만들어 둔 압축 변형도 함께 지운다
+    @Override
+    public void delete(String location) throws IOException {
+        Path filePath = Paths.get(location);
+        Files.deleteIfExists(filePath);
+        PrecompressedEncoding.deleteVariants(filePath);
+    }
+}
@@ -0,0 +1,352 @@
+package flow.domain.file.storage;
+
+import flow.domain.file.entity.FileSegment;
+import flow.domain.file.repository.FileSegmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 작은 파일을 큰 세그먼트 파일에 이어 붙여 저장한다. 위치는 "세그먼트id:오프셋:길이" 다.
+ * 파일마다 inode 를 쓰지 않고, 백업도 큰 파일 몇 개만 옮기면 된다.
+ * 쓰기는 인스턴스마다 자기가 연 세그먼트 하나에만 하고, 자리만 락 안에서 잡은 뒤 실제 기록은 동시에 한다.
+ * 다음 세그먼트는 미리 만들어 두고 락 안에서는 참조만 바꾼다. 이전 세그먼트 봉인과 새 세그먼트 준비는 락 밖에서 한다.
+ * 열어 둔 세그먼트는 주기적으로 last_append_at 을 갱신해서 압축기가 죽은 인스턴스의 것으로 보고 봉인하지 않게 한다.
+ * 읽기는 세그먼트 전체를 메모리 매핑해 두고 구간을 잘라 준다. 지운 자리는 {@code SegmentCompactor} 가 회수한다.
+ */
+@Component
+@Slf4j
+public class SegmentFileStorage implements FileStorage {
+
+    public static final String NAME = "segment";
+
+    private static final String SEGMENT_DIRECTORY = "segments";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // 매핑한 버퍼를 int 오프셋으로 자르므로 세그먼트는 이보다 클 수 없다
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    // 봉인되었거나 지워진 세그먼트에 기록해 다시 쓰는 횟수의 상한
+    private static final int MAX_APPEND_ATTEMPTS = 3;
+
+    private final FileSegmentRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path segmentDirectory;
+    private final boolean enabled;
+    private final long maxFileSize;
+    private final long segmentSize;
+
+    // 자리 잡기만 직렬화한다. 락 안에서는 I/O 를 하지 않는다
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Long activeSegmentId;
+    private long activeEnd;
+    private Long preparedSegmentId;
+
+    // 다음 세그먼트는 한 스레드만 준비한다. 준비된 세그먼트가 없을 때만 기록하는 쪽이 여기서 기다린다
+    private final ReentrantLock prepareLock = new ReentrantLock();
+
+    private final Map<Long, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    public SegmentFileStorage(FileSegmentRepository segmentRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.upload.path:/flow/data}") String uploadPath,
+                              @Value("${app.upload.storage.segment.enabled:false}") boolean enabled,
+                              @Value("${app.upload.storage.segment.max-file-size:64KB}") DataSize maxFileSize,
+                              @Value("${app.upload.storage.segment.segment-size:256MB}") DataSize segmentSize) {
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.segmentDirectory = Paths.get(uploadPath).resolve(SEGMENT_DIRECTORY);
+        this.enabled = enabled;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.segmentSize = Math.min(segmentSize.toBytes(), MAX_SEGMENT_SIZE);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public boolean accepts(long fileSize) {
+        return enabled && fileSize <= maxFileSize;
+    }
+
+    @Override
+    public String write(String storedFilename, byte[] bytes, int offset, int length) throws IOException {
+        return append(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * 활성 세그먼트 끝에 이어 쓰고 위치를 돌려준다.
+     * 그 사이 세그먼트가 봉인되었거나 압축으로 지워졌으면 그 세그먼트를 내리고 새 세그먼트에 다시 쓴다.
+     */
+    public String append(ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        int attempts = 0;
+        while (attempts < MAX_APPEND_ATTEMPTS) {
+            Slot slot = reserve(length);
+            if (slot == null) {
+                prepareSegment();
+                continue;
+            }
+            if (slot.rolled) {
+                log.info("새 세그먼트 열기: {}", slot.segmentId);
+            }
+            if (slot.filledSegmentId != null) {
+                seal(slot.filledSegmentId);
+            }
+
+            ByteBuffer source = bytes.duplicate();
+            try (FileChannel channel = FileChannel.open(segmentPath(slot.segmentId), StandardOpenOption.WRITE)) {
+                long target = slot.position;
+                while (source.hasRemaining()) {
+                    target += channel.write(source, target);
+                }
+            } catch (NoSuchFileException e) {
+                // 압축기가 봉인하고 은퇴시켜 파일까지 지운 세그먼트다
+                attempts++;
+                log.warn("지워진 세그먼트에 기록하려 해서 새 세그먼트에 다시 씁니다: {}", slot.segmentId);
+                discard(slot.segmentId);
+                continue;
+            }
+
+            Integer recorded = transactionTemplate.execute(status -> segmentRepository.recordAppend(
+                    slot.segmentId, slot.position + length, length, LocalDateTime.now()));
+            if (recorded != null && recorded > 0) {
+                // 세그먼트를 바꾼 쪽이 다음 세그먼트를 미리 만들어 두어 다른 기록이 기다리지 않게 한다
+                if (slot.rolled) {
+                    prepareSegment();
+                }
+                return location(slot.segmentId, slot.position, length);
+            }
+
+            attempts++;
+            log.debug("봉인된 세그먼트에 기록되어 다시 씁니다: {}", slot.segmentId);
+            discard(slot.segmentId);
+        }
+        throw new IOException("세그먼트에 기록하지 못했습니다.");
+    }
+
+    // 더 쓸 수 없는 세그먼트를 활성/준비 자리에서 내린다. 다음 기록이 준비된 세그먼트로 넘어가거나 새로 만든다
+    private void discard(long segmentId) {
+        appendLock.lock();
+        try {
+            if (Long.valueOf(segmentId).equals(activeSegmentId)) {
+                activeSegmentId = null;
+            }
+            if (Long.valueOf(segmentId).equals(preparedSegmentId)) {
+                preparedSegmentId = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 자리를 잡는다. 활성 세그먼트가 차면 준비된 세그먼트로 바꾸고, 준비된 것이 없으면 null
+    private Slot reserve(int length) {
+        appendLock.lock();
+        try {
+            boolean rolled = false;
+            Long filledSegmentId = null;
+            if (activeSegmentId == null || activeEnd + length > segmentSize) {
+                if (preparedSegmentId == null) {
+                    return null;
+                }
+                filledSegmentId = activeSegmentId;
+                activeSegmentId = preparedSegmentId;
+                activeEnd = 0;
+                preparedSegmentId = null;
+                rolled = true;
+            }
+            Slot slot = new Slot(activeSegmentId, activeEnd, rolled, filledSegmentId);
+            activeEnd += length;
+            return slot;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 준비된 세그먼트가 없으면 DB 행과 빈 파일을 만들어 둔다. 락 밖에서 호출한다
+    private void prepareSegment() throws IOException {
+        prepareLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (preparedSegmentId != null) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            Files.createDirectories(segmentDirectory);
+            FileSegment segment = transactionTemplate.execute(status -> segmentRepository.save(FileSegment.create()));
+            Files.createFile(segmentPath(segment.getId()));
+
+            appendLock.lock();
+            try {
+                preparedSegmentId = segment.getId();
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            prepareLock.unlock();
+        }
+    }
+
+    @Override
+    public StoredRegion locate(String location) {
+        long[] parts = parse(location);
+        return new StoredRegion(segmentPath(parts[0]), parts[1]);
+    }
+
+    // 세그먼트 전체를 한 번 매핑해 두고 구간만 잘라 준다. 활성 세그먼트는 자라므로 범위를 넘으면 다시 매핑한다
+    @Override
+    public ByteBuffer read(String location) throws IOException {
+        long[] parts = parse(location);
+        long segmentId = parts[0];
+        int offset = (int) parts[1];
+        int length = (int) parts[2];
+
+        MappedByteBuffer mapping = mappings.get(segmentId);
+        if (mapping == null || mapping.capacity() < offset + length) {
+            try (FileChannel channel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.READ)) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            mappings.put(segmentId, mapping);
+        }
+        return mapping.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * 살아 있는 바이트 수만 줄인다. 바이트 자체는 압축 때 회수된다.
+     * 호출한 쪽 트랜잭션이 있으면 함께 커밋되고, 없으면 따로 커밋한다.
+     */
+    @Override
+    public void delete(String location) {
+        long[] parts = parse(location);
+        transactionTemplate.executeWithoutResult(status -> segmentRepository.releaseLive(parts[0], parts[2]));
+    }
+
+    public void seal(Long segmentId) {
+        transactionTemplate.executeWithoutResult(status -> segmentRepository.seal(segmentId, LocalDateTime.now()));
+    }
+
+    // 압축이 끝나 유예 시간까지 지난 세그먼트의 파일을 지운다
+    public void deleteSegmentFile(Long segmentId) throws IOException {
+        mappings.remove(segmentId);
+        Files.deleteIfExists(segmentPath(segmentId));
+    }
+
+    public void unmap(Long segmentId) {
+        mappings.remove(segmentId);
+    }
+
+    public static String locationPrefix(long segmentId) {
+        return segmentId + ":";
+    }
+
+    // 이 인스턴스가 열어 두거나 준비해 둔 세그먼트가 오래 쉬어도 압축기가 봉인하지 않도록 살아 있음을 남긴다
+    @Scheduled(fixedDelayString = "${app.upload.storage.segment.heartbeat-interval-ms:300000}",
+            initialDelayString = "${app.upload.storage.segment.heartbeat-interval-ms:300000}")
+    public void heartbeat() {
+        List<Long> owned = new ArrayList<>(2);
+        appendLock.lock();
+        try {
+            if (activeSegmentId != null) {
+                owned.add(activeSegmentId);
+            }
+            if (preparedSegmentId != null) {
+                owned.add(preparedSegmentId);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (owned.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> segmentRepository.touch(owned, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("세그먼트 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    // 열어 둔 세그먼트를 봉인해서 압축 대상이 되게 한다. 준비만 해 둔 빈 세그먼트도 봉인하면 압축기가 지운다
+    @PreDestroy
+    public void shutdown() {
+        Long active;
+        Long prepared;
+        appendLock.lock();
+        try {
+            active = activeSegmentId;
+            prepared = preparedSegmentId;
+            activeSegmentId = null;
+            preparedSegmentId = null;
+        } finally {
+            appendLock.unlock();
+        }
+
+        for (Long segmentId : new Long[]{active, prepared}) {
+            if (segmentId == null) {
+                continue;
+            }
+            try {
+                seal(segmentId);
+            } catch (Exception e) {
+                log.warn("세그먼트 봉인 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Path segmentPath(long segmentId) {
+        return segmentDirectory.resolve(String.format("%010d", segmentId) + SEGMENT_SUFFIX);
+    }
+
+    static String location(long segmentId, long offset, int length) {
+        return locationPrefix(segmentId) + offset + ":" + length;
+    }
+
+    // 세그먼트id, 오프셋, 길이
+    static long[] parse(String location) {
+        String[] parts = location.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("세그먼트 위치 형식이 아닙니다: " + location);
+        }
+        return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+    }
+
+    private static final class Slot {
+        private final long segmentId;
+        private final long position;
+        private final boolean rolled;
+        // 이 자리를 잡으면서 다 찬 것으로 넘긴 세그먼트. 기록하는 쪽이 락 밖에서 봉인한다
+        private final Long filledSegmentId;
+
+        private Slot(long segmentId, long position, boolean rolled, Long filledSegmentId) {
+            this.segmentId = segmentId;
+            this.position = position;
+            this.rolled = rolled;
+            this.filledSegmentId = filledSegmentId;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package flow.domain.file.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * 저장된 파일 바이트가 시작하는 위치. 길이는 {@code FileEntity.fileSize} 다.
+ * 로컬 저장소는 파일 자체(offset 0), 세그먼트 저장소는 세그먼트 파일 안의 구간이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StoredRegion {
+
+    private final Path path;
+    private final long offset;
+}
@@ -0,0 +1,44 @@
+package flow.domain.extension.policy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtensionPolicyMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExtensionPolicyMetrics metrics = new ExtensionPolicyMetrics(registry);
+
+    @Test
+    void blockedExtensionTagsAreCappedPerOutcome() {
+        for (int i = 0; i < 150; i++) {
+            metrics.recordEvaluation(new ExtensionVerdict("ext" + i, ExtensionBlockType.CUSTOM), System.nanoTime());
+        }
+
+        assertThat(registry.find("extension.policy.decisions").tag("outcome", "custom-blocked").counters())
+                .hasSize(101);
+        assertThat(registry.get("extension.policy.decisions")
+                .tag("outcome", "custom-blocked").tag("extension", "other").counter().count()).isEqualTo(50);
+    }
+
+    @Test
+    void countersOfRulesLeavingPolicyAreRemoved() {
+        metrics.recordEvaluation(new ExtensionVerdict("exe", ExtensionBlockType.FIXED), System.nanoTime());
+        metrics.recordEvaluation(new ExtensionVerdict("sh", ExtensionBlockType.CUSTOM), System.nanoTime());
+        metrics.recordEvaluation(new ExtensionVerdict("bat", ExtensionBlockType.CUSTOM), System.nanoTime());
+
+        metrics.onPolicySwapped(new ExtensionPolicySwappedEvent(null,
+                ExtensionPolicy.of(2L, List.of("exe"), List.of("bat"), true)));
+
+        assertThat(registry.find("extension.policy.decisions").tag("extension", "exe").counter()).isNotNull();
+        assertThat(registry.find("extension.policy.decisions").tag("extension", "bat").counter()).isNotNull();
+        assertThat(registry.find("extension.policy.decisions").tag("extension", "sh").counter()).isNull();
+
+        // 다시 차단되면 새 카운터로 센다
+        metrics.recordEvaluation(new ExtensionVerdict("sh", ExtensionBlockType.CUSTOM), System.nanoTime());
+        assertThat(registry.get("extension.policy.decisions").tag("extension", "sh").counter().count()).isEqualTo(1);
+    }
+}
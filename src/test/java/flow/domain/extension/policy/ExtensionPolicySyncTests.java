@@ -0,0 +1,75 @@
+package flow.domain.extension.policy;
+
+import flow.Application;
+import flow.domain.extension.service.ExtensionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 DB 를 공유하는 두 애플리케이션 컨텍스트로 인스턴스 간 정책 동기화를 검증한다.
+ */
+class ExtensionPolicySyncTests {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void otherNodePicksUpPolicyChangeWhenVersionMoves() {
+        ExtensionService serviceA = nodeA.getBean(ExtensionService.class);
+        ExtensionService serviceB = nodeB.getBean(ExtensionService.class);
+        ExtensionPolicyHolder holderB = nodeB.getBean(ExtensionPolicyHolder.class);
+
+        String extension = "sync" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        long versionBefore = holderB.current().getVersion();
+
+        try {
+            serviceA.addCustomExtension(extension);
+
+            assertThat(serviceA.isExtensionBlocked(extension)).isTrue();
+            assertThat(serviceB.isExtensionBlocked(extension)).isFalse();
+
+            assertThat(holderB.refreshIfStale()).isTrue();
+            assertThat(holderB.current().getVersion()).isGreaterThan(versionBefore);
+            assertThat(serviceB.isExtensionBlocked(extension)).isTrue();
+
+            assertThat(holderB.refreshIfStale()).isFalse();
+        } finally {
+            serviceA.deleteCustomExtensionByExtension(extension);
+        }
+
+        holderB.refreshIfStale();
+        assertThat(serviceB.isExtensionBlocked(extension)).isFalse();
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                // 폴링 대신 테스트에서 직접 refreshIfStale 을 호출한다
+                .properties("app.extension.policy.poll-interval-ms=3600000")
+                .run();
+    }
+}
@@ -0,0 +1,62 @@
+package flow.domain.extension.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtensionPolicyTests {
+
+    private final ExtensionPolicy policy = ExtensionPolicy.of(1L,
+            List.of("exe", "js"),
+            List.of("tar.gz", "gz", "sh"),
+            true);
+
+    @Test
+    void matchesLastExtensionOfFilename() {
+        assertThat(policy.evaluateFilename("setup.EXE").getBlockType()).isEqualTo(ExtensionBlockType.FIXED);
+        assertThat(policy.evaluateFilename("run.sh").getBlockType()).isEqualTo(ExtensionBlockType.CUSTOM);
+        assertThat(policy.evaluateFilename("report.pdf").isBlocked()).isFalse();
+        assertThat(policy.evaluateFilename("report.pdf").getExtension()).isEqualTo("pdf");
+    }
+
+    @Test
+    void prefersLongestCompoundRule() {
+        ExtensionVerdict verdict = policy.evaluateFilename("backup.tar.gz");
+
+        assertThat(verdict.isBlocked()).isTrue();
+        assertThat(verdict.getExtension()).isEqualTo("tar.gz");
+    }
+
+    @Test
+    void catchesExtensionHiddenInInnerSegment() {
+        ExtensionVerdict verdict = policy.evaluateFilename("invoice.exe.pdf");
+
+        assertThat(verdict.getBlockType()).isEqualTo(ExtensionBlockType.FIXED);
+        assertThat(verdict.getExtension()).isEqualTo("exe");
+    }
+
+    @Test
+    void baseNameIsNotTreatedAsExtension() {
+        assertThat(policy.evaluateFilename("exe.pdf").isBlocked()).isFalse();
+        assertThat(policy.evaluateFilename("exe").isBlocked()).isFalse();
+        assertThat(policy.evaluateFilename(".exe").isBlocked()).isTrue();
+        assertThat(policy.evaluateFilename("setup.exe.").isBlocked()).isTrue();
+    }
+
+    @Test
+    void innerSegmentsCanBeIgnored() {
+        ExtensionPolicy lastSegmentOnly = ExtensionPolicy.of(1L, List.of("exe"), List.of(), false);
+
+        assertThat(lastSegmentOnly.evaluateFilename("invoice.exe.pdf").isBlocked()).isFalse();
+        assertThat(lastSegmentOnly.evaluateFilename("invoice.exe").isBlocked()).isTrue();
+    }
+
+    @Test
+    void evaluatesBareExtensions() {
+        assertThat(policy.evaluate("tar.gz").getExtension()).isEqualTo("tar.gz");
+        assertThat(policy.evaluate("exe.pdf").getBlockType()).isEqualTo(ExtensionBlockType.FIXED);
+        assertThat(policy.evaluate("pdf").isBlocked()).isFalse();
+    }
+}
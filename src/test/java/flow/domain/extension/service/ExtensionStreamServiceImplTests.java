@@ -0,0 +1,48 @@
+package flow.domain.extension.service;
+
+import flow.common.exception.BusinessException;
+import flow.domain.extension.policy.ExtensionPolicy;
+import flow.domain.extension.policy.ExtensionPolicyHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExtensionStreamServiceImplTests {
+
+    private ExtensionStreamServiceImpl streamService;
+
+    @AfterEach
+    void tearDown() {
+        if (streamService != null) {
+            streamService.shutdown();
+        }
+    }
+
+    @Test
+    void subscribersWaitingForSnapshotCountTowardLimit() throws InterruptedException {
+        // 스냅샷을 만들지 못하게 막아서 두 구독 모두 등록 전 상태로 둔다
+        CountDownLatch release = new CountDownLatch(1);
+        ExtensionPolicyHolder holder = mock(ExtensionPolicyHolder.class);
+        when(holder.current()).thenAnswer(invocation -> {
+            release.await();
+            return ExtensionPolicy.of(1L, List.of("exe"), List.of(), true);
+        });
+        streamService = new ExtensionStreamServiceImpl(holder, 60_000, 2, 4, 2, false);
+
+        streamService.subscribe();
+        streamService.subscribe();
+
+        assertThat(streamService.getSubscriberCount()).isEqualTo(2);
+        assertThatThrownBy(streamService::subscribe)
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("구독자 수가 너무 많습니다");
+        release.countDown();
+    }
+}
@@ -0,0 +1,127 @@
+package flow.domain.file.service;
+
+import flow.domain.file.entity.FileEntity;
+import flow.domain.file.entity.FileSegment;
+import flow.domain.file.repository.FileRepository;
+import flow.domain.file.repository.FileSegmentRepository;
+import flow.domain.file.storage.SegmentFileStorage;
+import flow.domain.file.storage.SegmentStorageFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static flow.domain.file.storage.SegmentStorageFixture.bytes;
+import static flow.domain.file.storage.SegmentStorageFixture.text;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SegmentCompactorTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private SegmentStorageFixture fixture;
+    private FileRepository fileRepository;
+    private FileSegmentRepository segmentRepository;
+    private FileMetadataCache metadataCache;
+    private SegmentFileStorage storage;
+    private SegmentCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new SegmentStorageFixture(uploadDirectory);
+        fileRepository = mock(FileRepository.class);
+        segmentRepository = fixture.segmentRepository();
+        metadataCache = mock(FileMetadataCache.class);
+        // 세그먼트 하나에 파일 하나만 들어가도록 작게 잡는다
+        storage = fixture.storage(DataSize.ofBytes(8));
+        compactor = new SegmentCompactor(fileRepository, segmentRepository, storage, metadataCache,
+                fixture.transactionManager(), 0.5, Duration.ofMinutes(10), Duration.ofHours(1), 4);
+    }
+
+    @Test
+    void liveFilesAreMovedAndSegmentIsRetired() throws IOException {
+        String source = storage.append(bytes("alpha"));
+        storage.append(bytes("bravo"));
+        givenSegmentFile(7L, source, 1);
+
+        compactor.compactSegment(segment(1L));
+
+        String target = movedTarget(7L, source);
+        assertThat(target).doesNotStartWith(SegmentFileStorage.locationPrefix(1L));
+        assertThat(text(storage.read(target))).isEqualTo("alpha");
+        verify(segmentRepository).retire(eq(1L), any());
+        verify(metadataCache).invalidate(List.of(7L));
+    }
+
+    @Test
+    void rowDeletedDuringMoveReleasesCopiedBytes() throws IOException {
+        String source = storage.append(bytes("alpha"));
+        givenSegmentFile(7L, source, 0);
+
+        compactor.compactSegment(segment(1L));
+
+        long targetSegmentId = Long.parseLong(movedTarget(7L, source).split(":")[0]);
+        verify(segmentRepository).releaseLive(targetSegmentId, 5L);
+        verify(segmentRepository).retire(eq(1L), any());
+        verify(metadataCache).invalidate(List.of());
+    }
+
+    @Test
+    void moveSkipsPreparedSegmentRetiredElsewhere() throws IOException {
+        // 세그먼트 2 가 활성, 3 이 준비된 상태에서 다른 인스턴스가 3 을 은퇴시키고 파일을 지웠다
+        String source = storage.append(bytes("alpha"));
+        storage.append(bytes("bravo"));
+        fixture.retireElsewhere(3L);
+        givenSegmentFile(7L, source, 1);
+
+        compactor.compactSegment(segment(1L));
+
+        String target = movedTarget(7L, source);
+        assertThat(target).isEqualTo("4:0:5");
+        assertThat(text(storage.read(target))).isEqualTo("alpha");
+        verify(segmentRepository).retire(eq(1L), any());
+    }
+
+    @Test
+    void idleSegmentsAreSealedBeforeCompaction() {
+        when(segmentRepository.sealIdle(any(), any())).thenReturn(2);
+
+        compactor.compact();
+
+        verify(segmentRepository).sealIdle(any(), any());
+        verify(segmentRepository).findCompactable(eq(0.5), any(), any());
+    }
+
+    private void givenSegmentFile(long fileId, String location, int updated) {
+        FileEntity file = FileEntity.builder().id(fileId).storageBackend(SegmentFileStorage.NAME).filePath(location).build();
+        String prefix = location.substring(0, location.indexOf(':') + 1);
+        when(fileRepository.findByStorageLocationPrefix(SegmentFileStorage.NAME, prefix + "%")).thenReturn(List.of(file));
+        when(fileRepository.updateFilePath(eq(fileId), eq(location), anyString())).thenReturn(updated);
+    }
+
+    private String movedTarget(long fileId, String source) {
+        ArgumentCaptor<String> target = ArgumentCaptor.forClass(String.class);
+        verify(fileRepository).updateFilePath(eq(fileId), eq(source), target.capture());
+        return target.getValue();
+    }
+
+    private static FileSegment segment(long id) {
+        FileSegment segment = FileSegment.create();
+        ReflectionTestUtils.setField(segment, "id", id);
+        return segment;
+    }
+}
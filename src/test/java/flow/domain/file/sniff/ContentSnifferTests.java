@@ -0,0 +1,89 @@
+package flow.domain.file.sniff;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentSnifferTests {
+
+    @Test
+    void detectsPortableExecutableBySignatureAtHeaderOffset() {
+        byte[] header = new byte[0x100];
+        header[0] = 'M';
+        header[1] = 'Z';
+        header[0x3C] = (byte) 0x80;
+        header[0x80] = 'P';
+        header[0x81] = 'E';
+
+        assertThat(sniff(header)).isEqualTo(SniffedType.WINDOWS_EXECUTABLE);
+    }
+
+    @Test
+    void textStartingWithMzIsNotExecutable() {
+        String csv = "MZ,name,amount\n" + "1,alpha,100\n".repeat(20);
+
+        assertThat(sniff(csv.getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(sniff("MZ".getBytes(StandardCharsets.US_ASCII))).isNull();
+    }
+
+    @Test
+    void peOffsetOutsideHeaderIsNotExecutable() {
+        byte[] header = new byte[0x100];
+        header[0] = 'M';
+        header[1] = 'Z';
+        header[0x3C] = (byte) 0xFE;
+
+        assertThat(sniff(header)).isNull();
+    }
+
+    @Test
+    void detectsBinarySignatures() {
+        assertThat(sniff(bytes(0x7F, 'E', 'L', 'F', 2, 1))).isEqualTo(SniffedType.ELF_EXECUTABLE);
+        assertThat(sniff(bytes(0xCF, 0xFA, 0xED, 0xFE))).isEqualTo(SniffedType.MACH_O_EXECUTABLE);
+        assertThat(sniff(bytes('P', 'K', 0x03, 0x04))).isEqualTo(SniffedType.ZIP);
+        assertThat(sniff(bytes(0x1F, 0x8B, 0x08))).isEqualTo(SniffedType.GZIP);
+        assertThat(sniff(bytes('R', 'a', 'r', '!', 0x1A, 0x07, 0x00))).isEqualTo(SniffedType.RAR);
+        assertThat(sniff(bytes('7', 'z', 0xBC, 0xAF, 0x27, 0x1C))).isEqualTo(SniffedType.SEVEN_ZIP);
+        assertThat(sniff(bytes(0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1))).isEqualTo(SniffedType.OLE_COMPOUND);
+        assertThat(sniff("%PDF-1.7".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.PDF);
+        assertThat(sniff(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A))).isEqualTo(SniffedType.PNG);
+        assertThat(sniff(bytes(0xFF, 0xD8, 0xFF, 0xE0))).isEqualTo(SniffedType.JPEG);
+        assertThat(sniff("GIF89a".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.GIF);
+    }
+
+    @Test
+    void separatesUniversalBinaryFromJavaClass() {
+        assertThat(sniff(bytes(0xCA, 0xFE, 0xBA, 0xBE, 0, 0, 0, 2))).isEqualTo(SniffedType.MACH_O_EXECUTABLE);
+        assertThat(sniff(bytes(0xCA, 0xFE, 0xBA, 0xBE, 0, 0, 0, 65))).isEqualTo(SniffedType.JAVA_CLASS);
+    }
+
+    @Test
+    void classifiesScriptsByInterpreter() {
+        assertThat(sniff("#!/bin/bash\necho hi".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.SHELL_SCRIPT);
+        assertThat(sniff("#!/usr/bin/env python3\n".getBytes(StandardCharsets.US_ASCII)))
+                .isEqualTo(SniffedType.PYTHON_SCRIPT);
+        assertThat(sniff("#!/usr/bin/perl -w\n".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.PERL_SCRIPT);
+        assertThat(sniff("#!/usr/bin/env node\n".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.NODE_SCRIPT);
+        assertThat(sniff("#!/usr/bin/ruby\n".getBytes(StandardCharsets.US_ASCII))).isEqualTo(SniffedType.SCRIPT);
+    }
+
+    @Test
+    void plainTextHasNoSignature() {
+        assertThat(sniff("id,name\n1,alpha\n".getBytes(StandardCharsets.US_ASCII))).isNull();
+        assertThat(sniff(bytes('M'))).isNull();
+    }
+
+    private static SniffedType sniff(byte[] header) {
+        return ContentSniffer.sniff(header, header.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,140 @@
+package flow.domain.file.storage;
+
+import flow.domain.file.repository.FileSegmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static flow.domain.file.storage.SegmentStorageFixture.bytes;
+import static flow.domain.file.storage.SegmentStorageFixture.text;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+class SegmentFileStorageTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private SegmentStorageFixture fixture;
+    private FileSegmentRepository segmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new SegmentStorageFixture(uploadDirectory);
+        segmentRepository = fixture.segmentRepository();
+    }
+
+    @Test
+    void appendedBytesReadBackFromLocation() throws IOException {
+        SegmentFileStorage storage = fixture.storage(DataSize.ofMegabytes(1));
+
+        String first = storage.append(bytes("first"));
+        String second = storage.append(bytes("second file"));
+
+        assertThat(first).isEqualTo("1:0:5");
+        assertThat(second).isEqualTo("1:5:11");
+        assertThat(text(storage.read(first))).isEqualTo("first");
+        assertThat(text(storage.read(second))).isEqualTo("second file");
+        verify(segmentRepository).recordAppend(eq(1L), eq(16L), eq(11L), any());
+    }
+
+    @Test
+    void fullSegmentIsSealedAndNextOneTakesOver() throws IOException {
+        SegmentFileStorage storage = fixture.storage(DataSize.ofBytes(8));
+
+        storage.append(bytes("12345"));
+        String second = storage.append(bytes("67890"));
+
+        assertThat(second).startsWith(SegmentFileStorage.locationPrefix(2L));
+        assertThat(text(storage.read(second))).isEqualTo("67890");
+        verify(segmentRepository).seal(eq(1L), any());
+        // 넘겨받은 세그먼트에 이어 다음 세그먼트가 미리 준비되어 있다
+        assertThat(Files.exists(fixture.segmentPath(3L))).isTrue();
+    }
+
+    @Test
+    void appendToSealedSegmentIsRewrittenToNewSegment() throws IOException {
+        fixture.sealElsewhere(1L);
+        SegmentFileStorage storage = fixture.storage(DataSize.ofMegabytes(1));
+
+        String location = storage.append(bytes("payload"));
+
+        assertThat(location).doesNotStartWith(SegmentFileStorage.locationPrefix(1L));
+        assertThat(text(storage.read(location))).isEqualTo("payload");
+    }
+
+    @Test
+    void deletedActiveSegmentIsDroppedAndAppendsContinue() throws IOException {
+        SegmentFileStorage storage = fixture.storage(DataSize.ofMegabytes(1));
+        storage.append(bytes("ab"));
+        fixture.retireElsewhere(1L);
+
+        String location = storage.append(bytes("cd"));
+        String next = storage.append(bytes("ef"));
+
+        assertThat(location).isEqualTo("2:0:2");
+        assertThat(next).isEqualTo("2:2:2");
+        assertThat(text(storage.read(next))).isEqualTo("ef");
+    }
+
+    @Test
+    void idleSealedPreparedSegmentIsReplacedOnRoll() throws IOException {
+        // 세그먼트 1 을 쓰는 동안 준비해 둔 2 가 봉인, 은퇴되어 파일까지 지워진 경우
+        SegmentFileStorage storage = fixture.storage(DataSize.ofBytes(8));
+        storage.append(bytes("12345"));
+        fixture.retireElsewhere(2L);
+
+        String rolled = storage.append(bytes("67890"));
+        String next = storage.append(bytes("abc"));
+
+        assertThat(rolled).isEqualTo("3:0:5");
+        assertThat(next).isEqualTo("3:5:3");
+        assertThat(text(storage.read(rolled))).isEqualTo("67890");
+        verify(segmentRepository).seal(eq(1L), any());
+    }
+
+    @Test
+    void heartbeatTouchesActiveAndPreparedSegments() throws IOException {
+        SegmentFileStorage storage = fixture.storage(DataSize.ofMegabytes(1));
+        storage.append(bytes("payload"));
+
+        storage.heartbeat();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(segmentRepository).touch(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void shutdownSealsActiveAndPreparedSegments() throws IOException {
+        SegmentFileStorage storage = fixture.storage(DataSize.ofMegabytes(1));
+        storage.append(bytes("payload"));
+
+        storage.shutdown();
+
+        verify(segmentRepository).seal(eq(1L), any());
+        verify(segmentRepository).seal(eq(2L), any());
+    }
+
+    @Test
+    void locationFormatRoundTrips() {
+        String location = SegmentFileStorage.location(42L, 1024L, 77);
+
+        assertThat(location).isEqualTo("42:1024:77");
+        assertThat(location).startsWith(SegmentFileStorage.locationPrefix(42L));
+        assertThat(SegmentFileStorage.parse(location)).containsExactly(42L, 1024L, 77L);
+        assertThatThrownBy(() -> SegmentFileStorage.parse("42:1024"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
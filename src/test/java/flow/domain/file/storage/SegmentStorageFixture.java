@@ -0,0 +1,80 @@
+package flow.domain.file.storage;
+
+import flow.domain.file.entity.FileSegment;
+import flow.domain.file.repository.FileSegmentRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 세그먼트 저장소 테스트가 함께 쓰는 준비물. DB 는 목으로 두고 세그먼트 파일은 임시 디렉토리에 실제로 쓴다.
+ * 세그먼트 id 는 만들어진 순서대로 1 부터 매긴다.
+ */
+public class SegmentStorageFixture {
+
+    private final Path uploadDirectory;
+    private final FileSegmentRepository segmentRepository = mock(FileSegmentRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicLong segmentIds = new AtomicLong();
+
+    public SegmentStorageFixture(Path uploadDirectory) {
+        this.uploadDirectory = uploadDirectory;
+        when(segmentRepository.save(any(FileSegment.class))).thenAnswer(invocation -> {
+            FileSegment segment = invocation.getArgument(0);
+            ReflectionTestUtils.setField(segment, "id", segmentIds.incrementAndGet());
+            return segment;
+        });
+        when(segmentRepository.recordAppend(anyLong(), anyLong(), anyLong(), any())).thenReturn(1);
+    }
+
+    public SegmentFileStorage storage(DataSize segmentSize) {
+        return new SegmentFileStorage(segmentRepository, transactionManager, uploadDirectory.toString(),
+                true, DataSize.ofKilobytes(64), segmentSize);
+    }
+
+    public FileSegmentRepository segmentRepository() {
+        return segmentRepository;
+    }
+
+    public PlatformTransactionManager transactionManager() {
+        return transactionManager;
+    }
+
+    public Path segmentPath(long segmentId) {
+        return uploadDirectory.resolve("segments").resolve(String.format("%010d", segmentId) + ".seg");
+    }
+
+    // 다른 인스턴스의 압축기가 봉인한 세그먼트. 파일은 남아 있지만 기록이 반영되지 않는다
+    public void sealElsewhere(long segmentId) {
+        when(segmentRepository.recordAppend(eq(segmentId), anyLong(), anyLong(), any())).thenReturn(0);
+    }
+
+    // 봉인, 은퇴를 거쳐 파일까지 지워진 세그먼트
+    public void retireElsewhere(long segmentId) throws IOException {
+        sealElsewhere(segmentId);
+        Files.delete(segmentPath(segmentId));
+    }
+
+    public static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}